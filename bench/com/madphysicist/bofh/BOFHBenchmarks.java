@@ -0,0 +1,88 @@
+/*
+ * BOFHBenchmarks.java (Class: com.madphysicist.bofh.BOFHBenchmarks)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.File;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmark suite once for each of a list of thread counts. JMH
+ * does not allow the thread count to be a benchmark parameter, so this runner
+ * is used by the {@code jmh} target of the build file instead of the default
+ * JMH main class.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026
+ * @since 1.1.0
+ */
+public class BOFHBenchmarks
+{
+    /**
+     * A private constructor to prevent instantiation.
+     *
+     * @since 1.1.0
+     */
+    private BOFHBenchmarks() {}
+
+    /**
+     * Runs the benchmarks. The arguments are, in order, a comma-separated list
+     * of thread counts, the directory in which to write the JSON results and
+     * a regular expression selecting the benchmarks to run. The thread count
+     * may be {@code max} to use one thread per available processor. All
+     * arguments are optional.
+     *
+     * @param args the thread counts, output directory and benchmark filter.
+     * @throws RunnerException if JMH fails to run any of the benchmarks.
+     * @since 1.1.0
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        String threadList = (args.length > 0) ? args[0] : "1";
+        File outputDir = new File((args.length > 1) ? args[1] : ".");
+        String include = (args.length > 2) ? args[2] : ".*";
+
+        for(String threadString : threadList.split(",")) {
+            threadString = threadString.trim();
+            int threads = threadString.equals("max") ?
+                    Runtime.getRuntime().availableProcessors() :
+                    Integer.parseInt(threadString);
+
+            Options options = new OptionsBuilder()
+                    .include(BOFHExcuseModelBenchmark.class.getName() + "\\." + include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(outputDir, "jmh-" + threads + "-threads.json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
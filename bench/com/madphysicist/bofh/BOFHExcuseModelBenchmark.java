@@ -0,0 +1,214 @@
+/*
+ * BOFHExcuseModelBenchmark.java (BenchmarkClass: com.madphysicist.bofh.BOFHExcuseModelBenchmark)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the hot paths of {@code BOFHExcuseModel} and {@code BOFHExcuse}.
+ * The model-based benchmarks are parametrized by the number of columns and the
+ * number of entries in each column. The number of threads is set by the
+ * {@link BOFHBenchmarks} runner, so that scaling limits can be compared across
+ * runs.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BOFHExcuseModelBenchmark
+{
+    /**
+     * The number of excuses written by each invocation of the bulk generation
+     * benchmark.
+     *
+     * @since 1.1.0
+     */
+    private static final int BULK_COUNT = 1000;
+
+    /**
+     * A synthetic model shared by all the threads of a benchmark. The columns
+     * are filled with distinct phrases of a few words each.
+     *
+     * @since 1.1.0
+     */
+    @State(Scope.Benchmark)
+    public static class ModelState
+    {
+        @Param({"4", "16"})
+        public int columns;
+
+        @Param({"10", "1000", "100000"})
+        public int entries;
+
+        public String[][] data;
+        public BOFHExcuseModel model;
+
+        @Setup public void setup()
+        {
+            data = new String[columns][entries];
+            for(int column = 0; column < columns; column++)
+                for(int entry = 0; entry < entries; entry++)
+                    data[column][entry] = "phrase " + column + " number " + entry;
+            model = new BOFHExcuseModel(data);
+        }
+    }
+
+    /**
+     * Per-thread inputs for the benchmarks that address a specific excuse.
+     * The indices and excuses are generated up front from a fixed seed so that
+     * their creation is not part of the measurement.
+     *
+     * @since 1.1.0
+     */
+    @State(Scope.Thread)
+    public static class ExcuseState
+    {
+        private static final int COUNT = 1024;
+
+        public int[][] indices;
+        public BOFHExcuse[] excuses;
+        public StringBuilder buffer = new StringBuilder();
+        public Random random = new BOFHSplittableRandom(42L);
+        public int position;
+
+        @Setup public void setup(ModelState state)
+        {
+            Random seed = new Random(42L);
+            indices = new int[COUNT][state.columns];
+            excuses = new BOFHExcuse[COUNT];
+            for(int i = 0; i < COUNT; i++) {
+                for(int column = 0; column < state.columns; column++)
+                    indices[i][column] = seed.nextInt(state.entries);
+                excuses[i] = state.model.getExcuse(indices[i]);
+            }
+        }
+
+        public int next()
+        {
+            position = (position + 1) & (COUNT - 1);
+            return position;
+        }
+    }
+
+    /**
+     * A pool of pre-generated excuses shared by all the threads of a
+     * benchmark.
+     *
+     * @since 1.1.0
+     */
+    @State(Scope.Benchmark)
+    public static class PoolState
+    {
+        public BOFHExcusePool pool;
+
+        @Setup public void setup(ModelState state)
+        {
+            pool = new BOFHExcusePool(state.model);
+        }
+
+        @TearDown public void tearDown()
+        {
+            pool.close();
+        }
+    }
+
+    @Benchmark public BOFHExcuse getRandomExcuse(ModelState state)
+    {
+        return state.model.getRandomExcuse();
+    }
+
+    @Benchmark public BOFHExcuse getRandomExcuseSplittable(ModelState state, ExcuseState excuses)
+    {
+        return state.model.getRandomExcuse(excuses.random);
+    }
+
+    @Benchmark public BOFHExcuse getExcuse(ModelState state, ExcuseState excuses)
+    {
+        return state.model.getExcuse(excuses.indices[excuses.next()]);
+    }
+
+    @Benchmark public String excuseToString(ModelState state, ExcuseState excuses)
+    {
+        // a new excuse each time, since excuses cache their rendered text
+        return state.model.getExcuse(excuses.indices[excuses.next()]).toString();
+    }
+
+    @Benchmark public String cachedExcuseToString(ExcuseState excuses)
+    {
+        return excuses.excuses[excuses.next()].toString();
+    }
+
+    @Benchmark public String randomExcuseToString(ModelState state)
+    {
+        return state.model.getRandomExcuse().toString();
+    }
+
+    @Benchmark public String poolTakeToString(PoolState pool)
+    {
+        return pool.pool.take().toString();
+    }
+
+    @Benchmark @OperationsPerInvocation(BULK_COUNT)
+    public int writeRandomExcuses(ModelState state, ExcuseState excuses) throws IOException
+    {
+        excuses.buffer.setLength(0);
+        state.model.writeRandomExcuses(excuses.buffer, BULK_COUNT);
+        return excuses.buffer.length();
+    }
+
+    @Benchmark public BOFHExcuseModel constructModel(ModelState state)
+    {
+        return new BOFHExcuseModel(state.data);
+    }
+
+    @Benchmark @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BOFHPhraseColumn[] loadFiles() throws IOException
+    {
+        return BOFHExcuseModel.loadFiles(new String[] {"A", "B", "C", "D"});
+    }
+}
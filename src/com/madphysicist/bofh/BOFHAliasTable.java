@@ -0,0 +1,138 @@
+/*
+ * BOFHAliasTable.java (Class: com.madphysicist.bofh.BOFHAliasTable)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Random;
+
+/**
+ * Builds and samples alias tables for weighted random selection in constant
+ * time. An alias table records, for each slot, a probability of keeping the
+ * slot and an alternative slot, its alias, to switch to otherwise. Picking a
+ * slot uniformly and then keeping it or switching to its alias selects each
+ * slot with a probability proportional to its weight.
+ * <p>
+ * Tables are stored in plain arrays and may occupy any range of them, so that
+ * many small tables can share a pair of flat arrays. Aliases are absolute
+ * indices into the arrays. This class is not part of the public API.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+final class BOFHAliasTable
+{
+    /**
+     * A private constructor to prevent instantiation.
+     *
+     * @since 1.0.0.0
+     */
+    private BOFHAliasTable() {}
+
+    /**
+     * Builds an alias table for a range of weights using Vose's method.
+     *
+     * @param weights the relative weight of each slot.
+     * @param from the first slot of the table, inclusive.
+     * @param to the last slot of the table, exclusive.
+     * @param probabilities the array to fill with the probability of keeping
+     * each slot in the range.
+     * @param aliases the array to fill with the alias of each slot in the
+     * range.
+     * @throws IllegalArgumentException if any weight in the range is negative
+     * or not finite, or the weights add up to zero.
+     * @since 1.0.0.0
+     */
+    static void build(double[] weights, int from, int to, double[] probabilities, int[] aliases)
+    {
+        int count = to - from;
+        double total = 0.0;
+        for(int index = from; index < to; index++) {
+            double weight = weights[index];
+            if(!(weight >= 0.0) || Double.isInfinite(weight))
+                throw new IllegalArgumentException("Invalid weight: " + weight);
+            total += weight;
+        }
+        if(count > 0 && !(total > 0.0 && total < Double.POSITIVE_INFINITY))
+            throw new IllegalArgumentException("Invalid total weight: " + total);
+
+        // Small slots are stacked from the front of the work array, large
+        // slots from the back, so a single array holds both work lists.
+        int[] work = new int[count];
+        int small = 0;
+        int large = count;
+        for(int index = from; index < to; index++) {
+            probabilities[index] = weights[index] * count / total;
+            if(probabilities[index] < 1.0)
+                work[small++] = index;
+            else
+                work[--large] = index;
+        }
+
+        while(small > 0 && large < count) {
+            int less = work[--small];
+            int more = work[large++];
+            aliases[less] = more;
+            probabilities[more] = (probabilities[more] + probabilities[less]) - 1.0;
+            if(probabilities[more] < 1.0)
+                work[small++] = more;
+            else
+                work[--large] = more;
+        }
+
+        // Whatever remains is within rounding error of one.
+        while(large < count) {
+            int index = work[large++];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+        while(small > 0) {
+            int index = work[--small];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Selects a random slot from an alias table, using one integer and one
+     * floating point draw from the source.
+     *
+     * @param probabilities the probability of keeping each slot.
+     * @param aliases the alias of each slot.
+     * @param from the first slot of the table, inclusive.
+     * @param to the last slot of the table, exclusive. Must be greater than
+     * {@code from}.
+     * @param random the source of randomness.
+     * @return the index of the selected slot.
+     * @since 1.0.0.0
+     */
+    static int sample(double[] probabilities, int[] aliases, int from, int to, Random random)
+    {
+        int index = from + random.nextInt(to - from);
+        return (random.nextDouble() < probabilities[index]) ? index : aliases[index];
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * BOFHBatchWriter.java (Class: com.madphysicist.bofh.BOFHBatchWriter)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes large batches of random excuses to a channel in one of several line
+ * oriented formats. Excuses are encoded directly from the UTF-8 arenas of the
+ * model into large buffers, so no excuse or string objects are created per
+ * line.
+ * <p>
+ * Batches are generated in chunks of {@value #CHUNK_SIZE} excuses. Each chunk
+ * draws from its own {@linkplain BOFHSplittableRandom#split() split} of the
+ * random source, split off in chunk order. As a result, a given seed always
+ * produces the same output, whether the chunks are generated by a single
+ * thread or spread across several.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Grew chunk buffers on demand.
+ * @since 1.0.0.0
+ */
+final class BOFHBatchWriter
+{
+    /**
+     * The output formats supported by the batch writer. Each format is
+     * described by the text surrounding an excuse on its line and the way that
+     * the phrases of the excuse are escaped.
+     *
+     * @author Joseph Fox-Rabinovitz
+     * @version 1.0.0.0, 16 Oct 2026
+     * @since 1.0.0.0
+     */
+    enum Format
+    {
+        /**
+         * One excuse per line, with no escaping.
+         *
+         * @since 1.0.0.0
+         */
+        PLAIN("", "\n") {
+            @Override String escape(String phrase) {
+                return phrase;
+            }
+        },
+
+        /**
+         * One JSON object per line, with the text of the excuse in the {@code
+         * excuse} field.
+         *
+         * @since 1.0.0.0
+         */
+        JSON("{\"excuse\":\"", "\"}\n") {
+            @Override String escape(String phrase) {
+                StringBuilder sb = new StringBuilder(phrase.length());
+                for(int index = 0; index < phrase.length(); index++) {
+                    char c = phrase.charAt(index);
+                    if(c == '"' || c == '\\')
+                        sb.append('\\').append(c);
+                    else if(c < 0x20)
+                        sb.append(String.format("\\u%04x", (int)c));
+                    else
+                        sb.append(c);
+                }
+                return sb.toString();
+            }
+        },
+
+        /**
+         * A single quoted CSV field per line.
+         *
+         * @since 1.0.0.0
+         */
+        CSV("\"", "\"\n") {
+            @Override String escape(String phrase) {
+                return phrase.replace("\"", "\"\"");
+            }
+        };
+
+        /**
+         * The UTF-8 encoded text that precedes each excuse.
+         *
+         * @since 1.0.0.0
+         */
+        private final byte[] prefix;
+
+        /**
+         * The UTF-8 encoded text that follows each excuse, including the line
+         * terminator.
+         *
+         * @since 1.0.0.0
+         */
+        private final byte[] suffix;
+
+        /**
+         * Creates a format with the specified text around each excuse.
+         *
+         * @param prefix the text that precedes each excuse.
+         * @param suffix the text that follows each excuse.
+         * @since 1.0.0.0
+         */
+        private Format(String prefix, String suffix)
+        {
+            this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+            this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Escapes a single phrase so that it can be embedded in a line of this
+         * format. The spaces between phrases never need escaping.
+         *
+         * @param phrase the phrase to escape. Never {@code null}.
+         * @return the escaped phrase.
+         * @since 1.0.0.0
+         */
+        abstract String escape(String phrase);
+    }
+
+    /**
+     * The number of excuses generated with each split of the random source.
+     * The value of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    static final int CHUNK_SIZE = 16384;
+
+    /**
+     * The minimum size of the output buffer of a single-threaded writer. The
+     * value of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The initial size of the buffer of a chunk generated by a multi-threaded
+     * writer. The buffer grows as needed. The value of this constant is
+     * {@value}.
+     *
+     * @since 1.0.0.1
+     */
+    private static final int CHUNK_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The largest buffer that can be allocated for a chunk. The value of this
+     * constant is {@value}.
+     *
+     * @since 1.0.0.1
+     */
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The model with its phrases escaped for the output format.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * The output format.
+     *
+     * @since 1.0.0.0
+     */
+    private final Format format;
+
+    /**
+     * The maximum number of bytes in a single line of output.
+     *
+     * @since 1.0.0.0
+     */
+    private final int maxLineLength;
+
+    /**
+     * Creates a writer for the specified model and format. If the format
+     * requires escaping, an escaped copy of the model is made once up front,
+     * so that lines can still be copied directly from the phrase arenas.
+     *
+     * @param model the model to draw excuses from.
+     * @param format the output format.
+     * @since 1.0.0.0
+     */
+    BOFHBatchWriter(BOFHExcuseModel model, Format format)
+    {
+        this.model = (format == Format.PLAIN) ? model : escape(model, format);
+        this.format = format;
+        this.maxLineLength = format.prefix.length + this.model.getMaxExcuseByteLength() + format.suffix.length;
+    }
+
+    /**
+     * Writes the specified number of random excuses to a channel, one per
+     * line. With more than one thread, chunks are generated concurrently and
+     * written in order as they complete. The number of chunks in flight is
+     * bounded to twice the number of threads, which limits the memory used.
+     *
+     * @param channel the channel to write to. The channel is not closed.
+     * @param count the number of excuses to write.
+     * @param random the random source to split for each chunk.
+     * @param threads the number of threads to generate excuses with.
+     * @throws IOException if the channel can not be written.
+     * @since 1.0.0.0
+     */
+    void write(WritableByteChannel channel, long count, BOFHSplittableRandom random, int threads) throws IOException
+    {
+        if(count < 0L)
+            throw new IllegalArgumentException("Count: " + count);
+
+        if(threads <= 1) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, maxLineLength));
+            int[] indices = new int[model.getColumnCount()];
+            for(long start = 0L; start < count; start += CHUNK_SIZE)
+                writeChunk(channel, buffer, indices, random.split(), (int)Math.min(count - start, CHUNK_SIZE));
+            drain(channel, buffer);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            for(long start = 0L; start < count; start += CHUNK_SIZE) {
+                if(pending.size() >= 2 * threads)
+                    drain(channel, await(pending.removeFirst()));
+                pending.addLast(executor.submit(createChunk(random.split(), (int)Math.min(count - start, CHUNK_SIZE))));
+            }
+            while(!pending.isEmpty())
+                drain(channel, await(pending.removeFirst()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates a chunk of excuses into a shared buffer, draining the buffer to
+     * the channel whenever it can not hold another line.
+     *
+     * @param channel the channel to drain to.
+     * @param buffer the buffer to fill. On return, the buffer may still
+     * contain data that has not been drained.
+     * @param indices a scratch array with one element per column.
+     * @param random the random source for this chunk.
+     * @param count the number of excuses in the chunk.
+     * @throws IOException if the channel can not be written.
+     * @since 1.0.0.0
+     */
+    private void writeChunk(WritableByteChannel channel, ByteBuffer buffer, int[] indices,
+                            BOFHSplittableRandom random, int count) throws IOException
+    {
+        for(int excuse = 0; excuse < count; excuse++) {
+            if(buffer.remaining() < maxLineLength)
+                drain(channel, buffer);
+            putLine(buffer, model.getRandomIndices(indices, random));
+        }
+    }
+
+    /**
+     * Creates a task that generates a chunk of excuses into a buffer of its
+     * own. The buffer starts small, and is grown whenever it can not hold
+     * another line, so its size depends on the output rather than on the
+     * longest possible line.
+     *
+     * @param random the random source for the chunk.
+     * @param count the number of excuses in the chunk.
+     * @return a task returning a buffer that contains the chunk.
+     * @since 1.0.0.0
+     */
+    private Callable<ByteBuffer> createChunk(final BOFHSplittableRandom random, final int count)
+    {
+        return new Callable<ByteBuffer>() {
+            @Override public ByteBuffer call() {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(CHUNK_BUFFER_SIZE, maxLineLength));
+                int[] indices = new int[model.getColumnCount()];
+                for(int excuse = 0; excuse < count; excuse++) {
+                    if(buffer.remaining() < maxLineLength)
+                        buffer = grow(buffer);
+                    putLine(buffer, model.getRandomIndices(indices, random));
+                }
+                return buffer;
+            }
+        };
+    }
+
+    /**
+     * Copies the contents of a buffer into a larger one. The capacity is at
+     * least doubled, and is large enough for another line.
+     *
+     * @param buffer the buffer to grow. The data to copy is between the start
+     * of the buffer and its position.
+     * @return a new buffer containing the same data, positioned after it.
+     * @throws OutOfMemoryError if the grown buffer would be too large to
+     * allocate.
+     * @since 1.0.0.1
+     */
+    private ByteBuffer grow(ByteBuffer buffer)
+    {
+        long required = (long)buffer.position() + maxLineLength;
+        if(required > MAX_BUFFER_SIZE)
+            throw new OutOfMemoryError("Chunk too large: " + required + " bytes");
+        int capacity = (int)Math.min(MAX_BUFFER_SIZE, Math.max(2L * buffer.capacity(), required));
+        buffer.flip();
+        return ByteBuffer.allocate(capacity).put(buffer);
+    }
+
+    /**
+     * Encodes a single line of output into a buffer.
+     *
+     * @param buffer the buffer, which must have at least {@link
+     * #maxLineLength} bytes remaining.
+     * @param indices the indices of the excuse to encode.
+     * @since 1.0.0.0
+     */
+    private void putLine(ByteBuffer buffer, int[] indices)
+    {
+        buffer.put(format.prefix);
+        model.putExcuse(buffer, indices);
+        buffer.put(format.suffix);
+    }
+
+    /**
+     * Writes the contents of a buffer to a channel and clears the buffer.
+     *
+     * @param channel the channel to write to.
+     * @param buffer the buffer to drain. The data to write is between the
+     * start of the buffer and its position.
+     * @throws IOException if the channel can not be written.
+     * @since 1.0.0.0
+     */
+    private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Waits for a chunk to be generated.
+     *
+     * @param future the pending chunk.
+     * @return the generated chunk.
+     * @throws IOException if the thread is interrupted while waiting.
+     * @since 1.0.0.0
+     */
+    private static ByteBuffer await(Future<ByteBuffer> future) throws IOException
+    {
+        try {
+            return future.get();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating excuses", ie);
+        } catch(ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if(cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Creates a copy of a model with every phrase escaped for the specified
+     * format. The weights of the phrases and the constraint of the model are
+     * preserved.
+     *
+     * @param model the model to copy.
+     * @param format the format to escape phrases for.
+     * @return the escaped model.
+     * @since 1.0.0.0
+     */
+    private static BOFHExcuseModel escape(BOFHExcuseModel model, Format format)
+    {
+        String[][] columns = new String[model.getColumnCount()][];
+        double[][] weights = new double[columns.length][];
+        for(int index = 0; index < columns.length; index++) {
+            List<String> column = model.getColumn(index);
+            columns[index] = new String[column.size()];
+            weights[index] = new double[column.size()];
+            for(int phrase = 0; phrase < columns[index].length; phrase++) {
+                String text = column.get(phrase);
+                columns[index][phrase] = (text == null) ? null : format.escape(text);
+                weights[index][phrase] = model.getWeight(index, phrase);
+            }
+        }
+        return new BOFHExcuseModel(columns, weights).withConstraintTable(model.getConstraintTable());
+    }
+}
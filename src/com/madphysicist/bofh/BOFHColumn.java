@@ -31,7 +31,10 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 import javax.swing.border.BevelBorder;
@@ -48,6 +51,9 @@ import com.madphysicist.tools.swing.CasinoSpinnerModel;
  * @version 1.0.0.0, 11 Feb 2013
  * @version 1.0.0.1, 10 Apr 2013 - Refactored this into a public class.
  * @version 1.0.0.2, 10 Apr 2013 - Added constructors and updated initComponents.
+ * @version 1.0.0.3, 16 Oct 2026 - Added metrics.
+ * @version 1.0.0.4, 16 Oct 2026 - Added resampled spinners for large columns.
+ * @version 1.0.0.5, 16 Oct 2026 - Stopped resampling spinners that are spinning.
  * @since 1.0.0.0
  */
 public class BOFHColumn extends JPanel
@@ -83,6 +89,15 @@ public class BOFHColumn extends JPanel
      */
     private JButton spinButton;
 
+    /**
+     * Supplies fresh contents for the spinner before every spin, or {@code
+     * null} if the spinner always shows the same contents. The sampler is not
+     * serialized.
+     *
+     * @since 1.0.0.4
+     */
+    private transient Supplier<List<String>> sampler;
+
     /**
      * Constructs a panel for a column containing the specified data. The data
      * will be copied into a new {@code CasinoSpinnerModel} which will be used
@@ -127,6 +142,23 @@ public class BOFHColumn extends JPanel
         initComponents();
     }
 
+    /**
+     * Constructs a panel for a column whose spinner shows a different sample
+     * of the column on every spin. A new {@code CasinoSpinner} is created from
+     * the sample before each spin, so the whole column can come up over time,
+     * while only one sample is held in memory at once. The button of the
+     * column spins it through {@link #spin()}.
+     *
+     * @param sampler supplies the contents of the spinner for each spin.
+     * @since 1.0.0.4
+     */
+    BOFHColumn(Supplier<List<String>> sampler)
+    {
+        this.sampler = sampler;
+        this.spinner = new CasinoSpinner(new CasinoSpinnerModel(sampler.get()));
+        initComponents();
+    }
+
     /**
      * Initializes the GUI components of this class. This method is intended
      * for use exclusively in the constructor. The spinner field must have been
@@ -139,36 +171,73 @@ public class BOFHColumn extends JPanel
     {
         setLayout(new GridBagLayout());
 
-        spinner.setBorder(new BevelBorder(BevelBorder.LOWERED));
-        spinner.setFont(Font.decode("Courier New-bold-14"));
-
         this.spinButton = new JButton("Spin!");
         spinButton.setFont(spinButton.getFont().deriveFont(8.0f));
         spinButton.setBorder(new EtchedBorder(EtchedBorder.LOWERED));
+        spinButton.addActionListener(new ActionListener() {
+            @Override public void actionPerformed(ActionEvent e) {
+                BOFHMetrics.recordColumnSpin();
+            }
+        });
 
-        spinner.addToButton(spinButton);
+        if(sampler == null) {
+            spinner.addToButton(spinButton);
+        } else {
+            spinButton.addActionListener(new ActionListener() {
+                @Override public void actionPerformed(ActionEvent e) {
+                    spin();
+                }
+            });
+        }
 
-        add(spinner, new GridBagConstraints(0, 0, 1, 1, 1.0, 1.0,
-                GridBagConstraints.CENTER, GridBagConstraints.BOTH,
-                new Insets(0, 0, 0, 0), 10, 0));
+        addSpinner();
         add(spinButton, new GridBagConstraints(0, 1, 1, 1, 0.0, 0.0,
                 GridBagConstraints.WEST, GridBagConstraints.NONE,
                 new Insets(0, 0, 0, 0), 0, 0));
     }
 
     /**
-     * Spins the spinner of this column if it is not already spinning. This
-     * method is a no-op if the spinner is already spinning.
+     * Configures the appearance of the spinner and adds it to the top of this
+     * panel.
+     *
+     * @since 1.0.0.4
+     */
+    private void addSpinner()
+    {
+        spinner.setBorder(new BevelBorder(BevelBorder.LOWERED));
+        spinner.setFont(Font.decode("Courier New-bold-14"));
+
+        add(spinner, new GridBagConstraints(0, 0, 1, 1, 1.0, 1.0,
+                GridBagConstraints.CENTER, GridBagConstraints.BOTH,
+                new Insets(0, 0, 0, 0), 10, 0));
+    }
+
+    /**
+     * Spins the spinner of this column. This method is a no-op if the spinner
+     * is already spinning. If the column was created with a sampler, the
+     * spinner is first replaced by one showing a new sample, so a spin that is
+     * in progress is never interrupted.
      *
      * @since 1.0.0.0
      */
     public void spin()
     {
+        if(spinner.isSpinning())
+            return;
+        if(sampler != null) {
+            remove(spinner);
+            this.spinner = new CasinoSpinner(new CasinoSpinnerModel(sampler.get()));
+            addSpinner();
+            revalidate();
+            repaint();
+        }
         this.spinner.spin();
     }
 
     /**
-     * Returns the spinner of this component.
+     * Returns the spinner of this component. If the column was created with a
+     * sampler, the spinner is replaced by a new instance whenever the column
+     * is spun, so the returned reference should not be held across spins.
      *
      * @return the spinner of this component.
      * @since 1.0.0.1
@@ -0,0 +1,341 @@
+/*
+ * BOFHColumnReader.java (Class: com.madphysicist.bofh.BOFHColumnReader)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses the contents of column files for {@link BOFHExcuseModel}. Each file
+ * contains one entry per line. Lines are trimmed of surrounding whitespace
+ * before any further processing. Empty lines and lines starting with {@link
+ * BOFHExcuseModel#COMMENT_PREFIX} are ignored. A line may end with {@link
+ * BOFHExcuseModel#WEIGHT_SEPARATOR} followed by a non-negative number, which
+ * becomes the weight of the entry. Files on the file system are
+ * memory-mapped and parsed directly from the mapped buffer. The entries are
+ * stored in {@link BOFHPhraseColumn}s. This class is not part of the public
+ * API.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Added weight suffixes.
+ * @version 1.0.0.2, 16 Oct 2026 - Added metrics.
+ * @since 1.0.0.0
+ */
+final class BOFHColumnReader
+{
+    /**
+     * A private constructor to prevent instantiation.
+     *
+     * @since 1.0.0.0
+     */
+    private BOFHColumnReader() {}
+
+    /**
+     * Reads a set of column files in parallel. Each file is memory-mapped and
+     * parsed by a separate task in the common fork-join pool.
+     *
+     * @param files the files to read, one per column.
+     * @param charset the character set of the files.
+     * @return an array containing the entries of each file.
+     * @throws IOException if any of the files could not be opened or read.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn[] readPaths(Path[] files, final Charset charset) throws IOException
+    {
+        List<Callable<BOFHPhraseColumn>> tasks = new ArrayList<>(files.length);
+        for(final Path file : files) {
+            tasks.add(new Callable<BOFHPhraseColumn>() {
+                @Override public BOFHPhraseColumn call() throws IOException {
+                    return readPath(file, charset);
+                }
+            });
+        }
+        return invokeAll(tasks);
+    }
+
+    /**
+     * Runs a set of column-loading tasks in the common fork-join pool and
+     * collects their results in order.
+     *
+     * @param tasks the tasks to run, one per column.
+     * @return an array containing the result of each task.
+     * @throws IOException if any of the tasks failed with an {@code
+     * IOException}.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn[] invokeAll(List<Callable<BOFHPhraseColumn>> tasks) throws IOException
+    {
+        List<Future<BOFHPhraseColumn>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+        BOFHPhraseColumn[] columns = new BOFHPhraseColumn[futures.size()];
+        try {
+            for(int index = 0; index < columns.length; index++)
+                columns[index] = futures.get(index).get();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading columns", ie);
+        } catch(ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if(cause instanceof IOException)
+                throw (IOException)cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if(cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+        return columns;
+    }
+
+    /**
+     * Memory-maps a single column file and parses it.
+     *
+     * @param file the file to read.
+     * @param charset the character set of the file.
+     * @return the entries of the file.
+     * @throws IOException if the file could not be opened or read, or is
+     * larger than 2GB.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn readPath(Path file, Charset charset) throws IOException
+    {
+        long start = System.nanoTime();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+                throw new IOException("File too large: " + file);
+            BOFHPhraseColumn column = readLines(channel.map(FileChannel.MapMode.READ_ONLY, 0L, size), charset);
+            BOFHMetrics.recordLoad(file.toString(), System.nanoTime() - start);
+            return column;
+        }
+    }
+
+    /**
+     * Parses the lines of a buffer. If the character set encodes line breaks,
+     * whitespace and the comment prefix as their ASCII values, the lines are
+     * found and trimmed without decoding the buffer. UTF-8 entries are then
+     * copied into the column without being decoded at all. Otherwise, the
+     * entire buffer is decoded first.
+     *
+     * @param buffer the encoded contents of a column file.
+     * @param charset the character set of the buffer.
+     * @return the entries found in the buffer.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn readLines(ByteBuffer buffer, Charset charset)
+    {
+        BOFHPhraseColumn.Builder builder = new BOFHPhraseColumn.Builder(
+                buffer.remaining() / 16, buffer.remaining());
+        if(isAsciiCompatible(charset))
+            readBytes(buffer, charset, builder);
+        else
+            readChars(charset.decode(buffer), builder);
+        return builder.build();
+    }
+
+    /**
+     * Parses lines from an ASCII-compatible buffer. Line boundaries are
+     * searched for at the byte level. Bytes with values up to and including
+     * that of a space are trimmed, which matches {@link String#trim()}.
+     *
+     * @param buffer the encoded contents of a column file.
+     * @param charset the character set of the buffer.
+     * @param builder the column to append the retained entries to.
+     * @since 1.0.0.0
+     */
+    private static void readBytes(ByteBuffer buffer, Charset charset, BOFHPhraseColumn.Builder builder)
+    {
+        boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+        byte[] prefix = BOFHExcuseModel.COMMENT_PREFIX.getBytes(charset);
+        byte[] scratch = new byte[256];
+        ByteBuffer reader = buffer.duplicate();
+        int limit = buffer.limit();
+        int position = buffer.position();
+
+        while(position < limit) {
+            int end = position;
+            while(end < limit && buffer.get(end) != '\n')
+                end++;
+            int next = end + 1;
+
+            while(position < end && (buffer.get(position) & 0xFF) <= ' ')
+                position++;
+            while(end > position && (buffer.get(end - 1) & 0xFF) <= ' ')
+                end--;
+
+            int length = end - position;
+            if(length > 0 && !startsWith(buffer, position, length, prefix)) {
+                double weight = 1.0;
+                int separator = end - 1;
+                while(separator > position && buffer.get(separator) != BOFHExcuseModel.WEIGHT_SEPARATOR)
+                    separator--;
+                if(separator > position) {
+                    byte[] suffix = new byte[end - separator - 1];
+                    reader.position(separator + 1);
+                    reader.get(suffix);
+                    int phraseEnd = separator;
+                    while(phraseEnd > position && (buffer.get(phraseEnd - 1) & 0xFF) <= ' ')
+                        phraseEnd--;
+                    double parsed = parseWeight(new String(suffix, StandardCharsets.US_ASCII));
+                    if(!Double.isNaN(parsed) && phraseEnd > position) {
+                        weight = parsed;
+                        length = phraseEnd - position;
+                    }
+                }
+
+                if(utf8) {
+                    builder.add(buffer, position, length);
+                } else {
+                    if(scratch.length < length)
+                        scratch = new byte[Math.max(length, 2 * scratch.length)];
+                    reader.position(position);
+                    reader.get(scratch, 0, length);
+                    builder.add(new String(scratch, 0, length, charset));
+                }
+                builder.setWeight(weight);
+            }
+            position = next;
+        }
+    }
+
+    /**
+     * Parses lines from a decoded buffer.
+     *
+     * @param buffer the decoded contents of a column file.
+     * @param builder the column to append the retained entries to.
+     * @since 1.0.0.0
+     */
+    private static void readChars(CharBuffer buffer, BOFHPhraseColumn.Builder builder)
+    {
+        int limit = buffer.remaining();
+        int position = 0;
+        while(position < limit) {
+            int end = position;
+            while(end < limit && buffer.charAt(end) != '\n')
+                end++;
+            String line = buffer.subSequence(position, end).toString().trim();
+            if(!line.isEmpty() && !line.startsWith(BOFHExcuseModel.COMMENT_PREFIX)) {
+                double weight = 1.0;
+                int separator = line.lastIndexOf(BOFHExcuseModel.WEIGHT_SEPARATOR);
+                if(separator > 0) {
+                    String phrase = line.substring(0, separator).trim();
+                    double parsed = parseWeight(line.substring(separator + 1));
+                    if(!Double.isNaN(parsed) && !phrase.isEmpty()) {
+                        weight = parsed;
+                        line = phrase;
+                    }
+                }
+                builder.add(line);
+                builder.setWeight(weight);
+            }
+            position = end + 1;
+        }
+    }
+
+    /**
+     * Parses the weight suffix of a line. Only plain decimal numbers are
+     * accepted, so that text that merely happens to follow a {@link
+     * BOFHExcuseModel#WEIGHT_SEPARATOR} is left in the entry.
+     *
+     * @param text the text following the separator.
+     * @return the weight, or {@code NaN} if the text is not a valid weight.
+     * @since 1.0.0.1
+     */
+    private static double parseWeight(String text)
+    {
+        text = text.trim();
+        if(text.isEmpty())
+            return Double.NaN;
+        for(int index = 0; index < text.length(); index++) {
+            char c = text.charAt(index);
+            if((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-')
+                return Double.NaN;
+        }
+        try {
+            double weight = Double.parseDouble(text);
+            return (weight >= 0.0 && !Double.isInfinite(weight)) ? weight : Double.NaN;
+        } catch(NumberFormatException nfe) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Checks if a region of a buffer starts with the specified bytes.
+     *
+     * @param buffer the buffer to check.
+     * @param position the start of the region.
+     * @param length the length of the region.
+     * @param prefix the bytes to look for.
+     * @return {@code true} if the region starts with the prefix.
+     * @since 1.0.0.0
+     */
+    private static boolean startsWith(ByteBuffer buffer, int position, int length, byte[] prefix)
+    {
+        if(length < prefix.length)
+            return false;
+        for(int index = 0; index < prefix.length; index++)
+            if(buffer.get(position + index) != prefix[index])
+                return false;
+        return true;
+    }
+
+    /**
+     * Checks if a character set can be parsed at the byte level. This is the
+     * case for UTF-8, which never uses ASCII values within multi-byte
+     * sequences, and for single-byte character sets that encode control
+     * characters, spaces, the comment prefix and weights as ASCII does.
+     *
+     * @param charset the character set to check.
+     * @return {@code true} if lines can be found and trimmed without decoding.
+     * @since 1.0.0.0
+     */
+    private static boolean isAsciiCompatible(Charset charset)
+    {
+        if(charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII))
+            return true;
+        if(!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1.0f)
+            return false;
+
+        String probe = "\t\n\r " + BOFHExcuseModel.COMMENT_PREFIX
+                     + BOFHExcuseModel.WEIGHT_SEPARATOR + "0123456789.eE+-";
+        return Arrays.equals(probe.getBytes(charset), probe.getBytes(StandardCharsets.US_ASCII));
+    }
+}
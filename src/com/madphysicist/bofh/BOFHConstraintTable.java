@@ -0,0 +1,449 @@
+/*
+ * BOFHConstraintTable.java (Class: com.madphysicist.bofh.BOFHConstraintTable)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A {@link BOFHExcuseConstraint} compiled against the columns of a model, so
+ * that excuses satisfying it can be sampled directly, without rejection.
+ * <p>
+ * The entries of each column are grouped by class. Working backwards from the
+ * last column, each class is assigned the total weight of all the valid
+ * partial excuses that start with one of its entries. Classes with no valid
+ * continuation get a weight of zero and are pruned from the tables, so
+ * sampling never runs into a dead end. An excuse is then sampled forwards: a
+ * class is picked for the first column in proportion to its total weight,
+ * each subsequent class is picked among the compatible successors of the
+ * previous one in proportion to their total weights, and an entry is picked
+ * within each class in proportion to its own weight. Every pick uses an
+ * {@linkplain BOFHAliasTable alias table}, so sampling takes constant time per
+ * column, and the resulting excuses follow the same distribution as
+ * unconstrained sampling restricted to the valid excuses.
+ * <p>
+ * This class is not part of the public API.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+final class BOFHConstraintTable implements Serializable
+{
+    /**
+     * The version ID for serialization.
+     *
+     * @serial Increment the least significant three digits when compatibility
+     * is not compromised by a structural change (e.g. adding a new field with
+     * a sensible default value), and the upper digits when the change makes
+     * serialized versions of of the class incompatible with previous releases.
+     * @since 1.0.0.0
+     */
+    private static final long serialVersionUID = 1000L;
+
+    /**
+     * The dense class number of each entry of each column.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] classes;
+
+    /**
+     * The entries of each column, grouped by class.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] members;
+
+    /**
+     * The start of each class in {@link #members}, with an extra element
+     * marking the end of the last class, for each column.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] classStarts;
+
+    /**
+     * The alias table probabilities for picking a member within its class, for
+     * each column. The element for a column is {@code null} if the column is
+     * not weighted, in which case members are picked uniformly.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final double[][] memberProbabilities;
+
+    /**
+     * The alias table aliases for picking a member within its class, for each
+     * column. The element for a column is {@code null} if the column is not
+     * weighted.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] memberAliases;
+
+    /**
+     * For each pair of adjacent columns, the set of compatible classes of the
+     * right column for each class of the left column.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final BitSet[][] compatible;
+
+    /**
+     * The alias table probabilities for picking the class of the first column.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final double[] firstProbabilities;
+
+    /**
+     * The alias table aliases for picking the class of the first column.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[] firstAliases;
+
+    /**
+     * For each pair of adjacent columns, the viable successor classes of each
+     * class of the left column. Successors that have no valid continuation are
+     * omitted.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] successors;
+
+    /**
+     * The start of the successors of each class in {@link #successors}, with
+     * an extra element marking the end of the last class, for each pair of
+     * adjacent columns.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] successorStarts;
+
+    /**
+     * The alias table probabilities for picking a successor class, for each
+     * pair of adjacent columns.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final double[][] successorProbabilities;
+
+    /**
+     * The alias table aliases for picking a successor class, for each pair of
+     * adjacent columns.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[][] successorAliases;
+
+    /**
+     * Compiles a constraint against a set of columns. The constraint is
+     * consulted once for every entry, and once for every pair of classes in
+     * adjacent columns.
+     *
+     * @param columns the columns of the model.
+     * @param constraint the constraint to compile.
+     * @throws IllegalArgumentException if no excuse satisfies the constraint.
+     * @since 1.0.0.0
+     */
+    BOFHConstraintTable(BOFHPhraseColumn[] columns, BOFHExcuseConstraint constraint)
+    {
+        int count = columns.length;
+        this.classes = new int[count][];
+        this.members = new int[count][];
+        this.classStarts = new int[count][];
+        this.memberProbabilities = new double[count][];
+        this.memberAliases = new int[count][];
+        this.compatible = new BitSet[Math.max(count - 1, 0)][];
+        this.successors = new int[compatible.length][];
+        this.successorStarts = new int[compatible.length][];
+        this.successorProbabilities = new double[compatible.length][];
+        this.successorAliases = new int[compatible.length][];
+
+        int[][] labels = new int[count][];
+        double[][] classWeights = new double[count][];
+        for(int column = 0; column < count; column++) {
+            labels[column] = classify(columns[column], column, constraint);
+            classWeights[column] = group(columns[column], column, labels[column].length);
+        }
+
+        for(int column = 0; column < compatible.length; column++) {
+            compatible[column] = new BitSet[labels[column].length];
+            for(int left = 0; left < labels[column].length; left++) {
+                compatible[column][left] = new BitSet(labels[column + 1].length);
+                for(int right = 0; right < labels[column + 1].length; right++)
+                    if(constraint.isCompatible(column, labels[column][left], labels[column + 1][right]))
+                        compatible[column][left].set(right);
+            }
+        }
+
+        // The total weight of each class is only needed up to a constant
+        // factor per column, so it is rescaled to keep long products of
+        // weights from overflowing.
+        double[][] totals = new double[count][];
+        for(int column = count - 1; column >= 0; column--) {
+            totals[column] = classWeights[column].clone();
+            if(column < count - 1) {
+                for(int left = 0; left < totals[column].length; left++) {
+                    double continuations = 0.0;
+                    BitSet rights = compatible[column][left];
+                    for(int right = rights.nextSetBit(0); right >= 0; right = rights.nextSetBit(right + 1))
+                        continuations += totals[column + 1][right];
+                    totals[column][left] *= continuations;
+                }
+            }
+            double max = 0.0;
+            for(double total : totals[column])
+                max = Math.max(max, total);
+            if(!(max > 0.0))
+                throw new IllegalArgumentException("No excuse satisfies the constraint");
+            for(int index = 0; index < totals[column].length; index++)
+                totals[column][index] /= max;
+        }
+
+        if(count == 0) {
+            this.firstProbabilities = new double[0];
+            this.firstAliases = new int[0];
+        } else {
+            this.firstProbabilities = new double[totals[0].length];
+            this.firstAliases = new int[totals[0].length];
+            BOFHAliasTable.build(totals[0], 0, totals[0].length, firstProbabilities, firstAliases);
+        }
+
+        for(int column = 0; column < compatible.length; column++)
+            buildSuccessors(column, totals[column], totals[column + 1]);
+    }
+
+    /**
+     * Assigns every entry of a column to a dense class number.
+     *
+     * @param phrases the column to classify.
+     * @param column the index of the column.
+     * @param constraint the constraint that classifies the entries.
+     * @return the class label passed to the constraint for each dense class
+     * number.
+     * @since 1.0.0.0
+     */
+    private int[] classify(BOFHPhraseColumn phrases, int column, BOFHExcuseConstraint constraint)
+    {
+        Map<Integer, Integer> numbers = new HashMap<>();
+        int[] labels = new int[16];
+        classes[column] = new int[phrases.size()];
+        for(int entry = 0; entry < phrases.size(); entry++) {
+            int label = constraint.classify(column, phrases.get(entry));
+            Integer number = numbers.get(label);
+            if(number == null) {
+                number = numbers.size();
+                numbers.put(label, number);
+                if(number == labels.length)
+                    labels = Arrays.copyOf(labels, 2 * labels.length);
+                labels[number] = label;
+            }
+            classes[column][entry] = number;
+        }
+        return Arrays.copyOf(labels, numbers.size());
+    }
+
+    /**
+     * Groups the entries of a column by class, and builds the tables for
+     * picking an entry within each class.
+     *
+     * @param phrases the column to group.
+     * @param column the index of the column.
+     * @param classCount the number of classes in the column.
+     * @return the total weight of the entries of each class.
+     * @since 1.0.0.0
+     */
+    private double[] group(BOFHPhraseColumn phrases, int column, int classCount)
+    {
+        int[] starts = new int[classCount + 1];
+        for(int number : classes[column])
+            starts[number + 1]++;
+        for(int number = 0; number < classCount; number++)
+            starts[number + 1] += starts[number];
+
+        int[] grouped = new int[phrases.size()];
+        int[] next = Arrays.copyOf(starts, classCount);
+        for(int entry = 0; entry < grouped.length; entry++)
+            grouped[next[classes[column][entry]]++] = entry;
+        members[column] = grouped;
+        classStarts[column] = starts;
+
+        double[] weights = new double[grouped.length];
+        for(int position = 0; position < grouped.length; position++)
+            weights[position] = phrases.getWeight(grouped[position]);
+
+        double[] classWeights = new double[classCount];
+        for(int number = 0; number < classCount; number++)
+            for(int position = starts[number]; position < starts[number + 1]; position++)
+                classWeights[number] += weights[position];
+
+        if(phrases.getWeights() != null) {
+            memberProbabilities[column] = new double[grouped.length];
+            memberAliases[column] = new int[grouped.length];
+            for(int number = 0; number < classCount; number++)
+                buildTable(weights, starts[number], starts[number + 1], classWeights[number],
+                           memberProbabilities[column], memberAliases[column]);
+        }
+        return classWeights;
+    }
+
+    /**
+     * Builds the tables for picking a successor class for each class of a
+     * column.
+     *
+     * @param column the index of the left column.
+     * @param leftTotals the total weight of each class of the left column.
+     * @param rightTotals the total weight of each class of the right column.
+     * @since 1.0.0.0
+     */
+    private void buildSuccessors(int column, double[] leftTotals, double[] rightTotals)
+    {
+        int[] starts = new int[leftTotals.length + 1];
+        int size = 0;
+        for(int left = 0; left < leftTotals.length; left++) {
+            BitSet rights = compatible[column][left];
+            for(int right = rights.nextSetBit(0); right >= 0; right = rights.nextSetBit(right + 1))
+                if(rightTotals[right] > 0.0)
+                    size++;
+            starts[left + 1] = size;
+        }
+
+        int[] classList = new int[size];
+        double[] weights = new double[size];
+        for(int left = 0, position = 0; left < leftTotals.length; left++) {
+            BitSet rights = compatible[column][left];
+            for(int right = rights.nextSetBit(0); right >= 0; right = rights.nextSetBit(right + 1)) {
+                if(rightTotals[right] > 0.0) {
+                    classList[position] = right;
+                    weights[position++] = rightTotals[right];
+                }
+            }
+        }
+
+        successors[column] = classList;
+        successorStarts[column] = starts;
+        successorProbabilities[column] = new double[size];
+        successorAliases[column] = new int[size];
+        for(int left = 0; left < leftTotals.length; left++)
+            buildTable(weights, starts[left], starts[left + 1], leftTotals[left] > 0.0 ? 1.0 : 0.0,
+                       successorProbabilities[column], successorAliases[column]);
+    }
+
+    /**
+     * Builds an alias table over a range of weights, unless the range can
+     * never be sampled because its total weight is zero. Such a range is
+     * filled with a table that never switches to an alias.
+     *
+     * @param weights the weights of the slots.
+     * @param from the first slot of the table, inclusive.
+     * @param to the last slot of the table, exclusive.
+     * @param total the total weight of the range, or any positive value if
+     * the range may be sampled.
+     * @param probabilities the array to fill with the probabilities.
+     * @param aliases the array to fill with the aliases.
+     * @since 1.0.0.0
+     */
+    private static void buildTable(double[] weights, int from, int to, double total,
+                                   double[] probabilities, int[] aliases)
+    {
+        if(total > 0.0) {
+            BOFHAliasTable.build(weights, from, to, probabilities, aliases);
+        } else {
+            for(int index = from; index < to; index++) {
+                probabilities[index] = 1.0;
+                aliases[index] = index;
+            }
+        }
+    }
+
+    /**
+     * Selects a random excuse that satisfies the constraint.
+     *
+     * @param indices the array to fill with one index per column.
+     * @param random the source of randomness.
+     * @since 1.0.0.0
+     */
+    void sample(int[] indices, Random random)
+    {
+        if(indices.length == 0)
+            return;
+
+        int number = BOFHAliasTable.sample(firstProbabilities, firstAliases, 0, firstProbabilities.length, random);
+        for(int column = 0; column < indices.length; column++) {
+            if(column > 0) {
+                int[] starts = successorStarts[column - 1];
+                int position = BOFHAliasTable.sample(successorProbabilities[column - 1], successorAliases[column - 1],
+                                                     starts[number], starts[number + 1], random);
+                number = successors[column - 1][position];
+            }
+
+            int from = classStarts[column][number];
+            int to = classStarts[column][number + 1];
+            int position = (memberProbabilities[column] == null)
+                    ? from + random.nextInt(to - from)
+                    : BOFHAliasTable.sample(memberProbabilities[column], memberAliases[column], from, to, random);
+            indices[column] = members[column][position];
+        }
+    }
+
+    /**
+     * Checks if a selection of entries satisfies the constraint.
+     *
+     * @param indices a valid selection of one index per column.
+     * @return {@code true} if every pair of adjacent entries is compatible.
+     * @since 1.0.0.0
+     */
+    boolean isAllowed(int[] indices)
+    {
+        for(int column = 0; column < compatible.length; column++) {
+            int left = classes[column][indices[column]];
+            int right = classes[column + 1][indices[column + 1]];
+            if(!compatible[column][left].get(right))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * BOFHDeduplication.java (Class: com.madphysicist.bofh.BOFHDeduplication)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The result of removing duplicate entries from the columns of a {@link
+ * BOFHExcuseModel}. A deduplicated model contains each distinct entry of a
+ * column exactly once, so that phrases which appear several times in a corpus
+ * are not more likely to be selected than any other. When a duplicated entry
+ * is weighted, the weight of its first occurrence is kept.
+ * <p>
+ * Deduplication may optionally intern the entries of all columns into a
+ * single shared arena, so that a phrase appearing in several columns is only
+ * stored once. This does not change the contents of any column.
+ * <p>
+ * Duplicates are found with a hash index over the encoded phrases, without
+ * decoding any of them, so a deduplication pass takes time linear in the size
+ * of the model.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+public final class BOFHDeduplication
+{
+    /**
+     * The deduplicated model.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * The number of duplicate entries removed from the columns.
+     *
+     * @since 1.0.0.0
+     */
+    private final int removedEntries;
+
+    /**
+     * The number of bytes by which the arenas of the model shrank.
+     *
+     * @since 1.0.0.0
+     */
+    private final long removedBytes;
+
+    /**
+     * Creates a result.
+     *
+     * @param model the deduplicated model.
+     * @param removedEntries the number of entries removed.
+     * @param removedBytes the number of arena bytes removed.
+     * @since 1.0.0.0
+     */
+    private BOFHDeduplication(BOFHExcuseModel model, int removedEntries, long removedBytes)
+    {
+        this.model = model;
+        this.removedEntries = removedEntries;
+        this.removedBytes = removedBytes;
+    }
+
+    /**
+     * Returns the deduplicated model. The model has the same version as the
+     * original, but is not constrained, since the indices of the entries may
+     * have changed.
+     *
+     * @return the deduplicated model.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return model;
+    }
+
+    /**
+     * Returns the number of duplicate entries that were removed from the
+     * columns. Entries that were interned across columns are not counted,
+     * since every column still contains them.
+     *
+     * @return the number of entries removed.
+     * @since 1.0.0.0
+     */
+    public int getRemovedEntries()
+    {
+        return removedEntries;
+    }
+
+    /**
+     * Returns the number of bytes of phrase storage that were freed, both by
+     * removing duplicates and by interning. Arenas that are shared between
+     * columns are only counted once.
+     *
+     * @return the number of bytes removed.
+     * @since 1.0.0.0
+     */
+    public long getRemovedBytes()
+    {
+        return removedBytes;
+    }
+
+    /**
+     * Removes the duplicate entries of each column of a set of columns.
+     *
+     * @param columns the columns to deduplicate.
+     * @param intern whether to store the phrases of all columns in a single
+     * arena, with every distinct phrase appearing only once.
+     * @param original the model that the columns belong to.
+     * @return the deduplicated model and statistics.
+     * @since 1.0.0.0
+     */
+    static BOFHDeduplication deduplicate(BOFHPhraseColumn[] columns, boolean intern, BOFHExcuseModel original)
+    {
+        int totalEntries = 0;
+        for(BOFHPhraseColumn column : columns)
+            totalEntries += column.size();
+
+        PhraseIndex shared = intern ? new PhraseIndex(totalEntries) : null;
+        PhraseIndex[] indices = new PhraseIndex[columns.length];
+        int[][] offsets = new int[columns.length][];
+        double[][] weights = new double[columns.length][];
+        int removedEntries = 0;
+
+        for(int column = 0; column < columns.length; column++) {
+            BOFHPhraseColumn phrases = columns[column];
+            PhraseIndex index = intern ? shared : new PhraseIndex(phrases.size());
+            indices[column] = index;
+
+            byte[] data = phrases.getData();
+            int[] source = phrases.getOffsets();
+            int[] kept = new int[phrases.size()];
+            double[] keptWeights = (phrases.getWeights() == null) ? null : new double[phrases.size()];
+            int count = 0;
+            for(int entry = 0; entry < source.length; entry++) {
+                int id = index.add(data, source[entry], phrases.encodedLength(entry));
+                if(index.mark(id, column)) {
+                    if(keptWeights != null)
+                        keptWeights[count] = phrases.getWeight(entry);
+                    kept[count++] = index.offsetOf(id);
+                } else {
+                    removedEntries++;
+                }
+            }
+            offsets[column] = Arrays.copyOf(kept, count);
+            weights[column] = (keptWeights == null) ? null : Arrays.copyOf(keptWeights, count);
+        }
+
+        Map<byte[], Boolean> before = new IdentityHashMap<>();
+        long removedBytes = 0L;
+        for(BOFHPhraseColumn column : columns)
+            if(before.put(column.getData(), Boolean.TRUE) == null)
+                removedBytes += column.getDataSize();
+
+        BOFHPhraseColumn[] result = new BOFHPhraseColumn[columns.length];
+        byte[] sharedData = intern ? shared.toArray() : null;
+        if(intern)
+            removedBytes -= sharedData.length;
+        for(int column = 0; column < columns.length; column++) {
+            byte[] data = intern ? sharedData : indices[column].toArray();
+            if(!intern)
+                removedBytes -= data.length;
+            result[column] = new BOFHPhraseColumn(data, offsets[column], columns[column].isAscii(), weights[column]);
+        }
+        return new BOFHDeduplication(original.withColumns(result), removedEntries, removedBytes);
+    }
+
+    /**
+     * An open-addressing hash index of encoded phrases, which also serves as
+     * the arena the phrases are copied into. Each distinct phrase is assigned
+     * a sequential ID.
+     *
+     * @since 1.0.0.0
+     */
+    private static final class PhraseIndex
+    {
+        private byte[] data;
+        private int length;
+        private int[] offsets;
+        private int[] lengths;
+        private int[] columns;
+        private int count;
+        private int[] table;
+
+        /**
+         * Creates an index with room for the specified number of phrases.
+         *
+         * @param capacity the expected number of distinct phrases.
+         * @since 1.0.0.0
+         */
+        PhraseIndex(int capacity)
+        {
+            capacity = Math.max(capacity, 16);
+            this.data = new byte[8 * capacity];
+            this.offsets = new int[capacity];
+            this.lengths = new int[capacity];
+            this.columns = new int[capacity];
+            this.table = new int[Integer.highestOneBit(capacity) << 2];
+        }
+
+        /**
+         * Finds a phrase in the index, adding it if it is not there yet.
+         *
+         * @param source the array containing the encoded phrase.
+         * @param offset the start of the phrase, including its length prefix.
+         * @param size the number of bytes in the encoded phrase.
+         * @return the ID of the phrase.
+         * @since 1.0.0.0
+         */
+        int add(byte[] source, int offset, int size)
+        {
+            int mask = table.length - 1;
+            for(int slot = hash(source, offset, size) & mask; ; slot = (slot + 1) & mask) {
+                int id = table[slot] - 1;
+                if(id < 0) {
+                    id = append(source, offset, size);
+                    table[slot] = id + 1;
+                    if(4 * count > 3 * table.length)
+                        rehash();
+                    return id;
+                }
+                if(lengths[id] == size && matches(id, source, offset))
+                    return id;
+            }
+        }
+
+        /**
+         * Records that a phrase was used by a column.
+         *
+         * @param id the ID of the phrase.
+         * @param column the index of the column.
+         * @return {@code true} if this is the first use of the phrase by the
+         * column. Columns must be processed one at a time, in order.
+         * @since 1.0.0.0
+         */
+        boolean mark(int id, int column)
+        {
+            if(columns[id] == column + 1)
+                return false;
+            columns[id] = column + 1;
+            return true;
+        }
+
+        /**
+         * Returns the offset of a phrase in the arena of the index.
+         *
+         * @param id the ID of the phrase.
+         * @return the offset of the length prefix of the phrase.
+         * @since 1.0.0.0
+         */
+        int offsetOf(int id)
+        {
+            return offsets[id];
+        }
+
+        /**
+         * Returns a copy of the arena, trimmed to size.
+         *
+         * @return the phrases in the index.
+         * @since 1.0.0.0
+         */
+        byte[] toArray()
+        {
+            return Arrays.copyOf(data, length);
+        }
+
+        private boolean matches(int id, byte[] source, int offset)
+        {
+            int start = offsets[id];
+            for(int position = 0; position < lengths[id]; position++)
+                if(data[start + position] != source[offset + position])
+                    return false;
+            return true;
+        }
+
+        private int append(byte[] source, int offset, int size)
+        {
+            if(count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, 2 * count);
+                lengths = Arrays.copyOf(lengths, 2 * count);
+                columns = Arrays.copyOf(columns, 2 * count);
+            }
+            if(length + size > data.length)
+                data = Arrays.copyOf(data, Math.max(length + size, 2 * data.length));
+            System.arraycopy(source, offset, data, length, size);
+            offsets[count] = length;
+            lengths[count] = size;
+            length += size;
+            return count++;
+        }
+
+        private static int hash(byte[] source, int offset, int size)
+        {
+            int hash = 1;
+            for(int position = offset; position < offset + size; position++)
+                hash = 31 * hash + source[position];
+            return hash ^ (hash >>> 16);
+        }
+
+        private void rehash()
+        {
+            table = new int[2 * table.length];
+            int mask = table.length - 1;
+            for(int id = 0; id < count; id++) {
+                int slot = hash(data, offsets[id], lengths[id]) & mask;
+                while(table[slot] != 0)
+                    slot = (slot + 1) & mask;
+                table[slot] = id + 1;
+            }
+        }
+    }
+}
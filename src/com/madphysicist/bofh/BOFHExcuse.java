@@ -28,19 +28,40 @@
 package com.madphysicist.bofh;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * A BOFH excuse is a collection of terms that, when spoken in sequence, can
  * induce dummy mode among the uninitiated. This class encapsulates such a
  * sequence. This class is immutable.
+ * <p>
+ * Excuses generated by a {@link BOFHExcuseModel} only store the index of the
+ * selected entry in each column of the model. The components and the text of
+ * such an excuse are materialized from the model on demand, so generating one
+ * costs no more than the excuse itself and a small array of indices.
+ * <p>
+ * Excuses have value semantics, so they can be used as keys in hash-based
+ * collections. Two excuses backed by a model are equal if they come from the
+ * same model instance and select the same entries. Their hash code is computed
+ * from the indices when they are created, so neither hashing nor comparison
+ * looks at any text. Standalone excuses are equal if they have equal
+ * components and the same model, if any. An excuse backed by a model is never
+ * equal to a standalone excuse, even if the two have the same text.
  *
  * @see BOFHExcuseModel
  * @author Joseph Fox-Rabinovitz
  * @version 1.0.0.0, 11 Feb 2013
+ * @version 1.0.0.1, 16 Oct 2026 - Added index-backed excuses.
+ * @version 1.0.0.2, 16 Oct 2026 - Cached the rendered text.
+ * @version 1.0.0.3, 16 Oct 2026 - Added equals and hashCode.
+ * @version 1.0.0.4, 16 Oct 2026 - Added metrics.
  * @since 1.0.0.0
  */
 public class BOFHExcuse implements Serializable
@@ -54,18 +75,30 @@ public class BOFHExcuse implements Serializable
      * serialized versions of of the class incompatible with previous releases.
      * @since 1.0.0.0
      */
-    private static final long serialVersionUID = 1000L;
+    private static final long serialVersionUID = 1001L;
 
     /**
      * The sequence of words that make up the excuse. This is stored internally
      * as an unmodifiable list, so it can be passed and used outside the class
-     * freely.
+     * freely. This field is {@code null} for excuses that are backed by the
+     * {@linkplain #indices indices} of a model.
      *
      * @serial
      * @since 1.0.0.0
      */
     private final List<String> components;
 
+    /**
+     * The index of the selected entry in each column of the {@linkplain #model
+     * model}. This field is {@code null} for standalone excuses, which are
+     * defined by their {@linkplain #components components} instead. The array
+     * is owned by this object and is never modified.
+     *
+     * @serial
+     * @since 1.0.0.1
+     */
+    private final int[] indices;
+
     /**
      * The model from which this excuse was generated. The columns of the model
      * will be the sources of the corresponding elements of the excuse. This
@@ -76,6 +109,27 @@ public class BOFHExcuse implements Serializable
      */
     private final BOFHExcuseModel model;
 
+    /**
+     * The rendered text of the excuse, or {@code null} if it has not been
+     * rendered yet. Since strings are immutable and every rendering of an
+     * excuse is equal, this field is set without synchronization. At worst,
+     * concurrent callers of {@link #toString()} render the text more than
+     * once.
+     *
+     * @since 1.0.0.2
+     */
+    private transient String text;
+
+    /**
+     * The hash code of this excuse, or zero if it has not been computed. The
+     * hash code of an excuse backed by a model is computed when the excuse is
+     * created. It depends on the identity of the model, so it is not
+     * serialized.
+     *
+     * @since 1.0.0.3
+     */
+    private transient int hash;
+
     /**
      * Constructs a standalone excuse with the specified sequence of elements.
      * The list parameter is copied so that subsequent changes to it do not
@@ -110,21 +164,71 @@ public class BOFHExcuse implements Serializable
             this.components = Collections.unmodifiableList(componentsCopy);
         }
 
+        this.indices = null;
+        this.model = model;
+    }
+
+    /**
+     * Constructs an excuse backed by a selection of indices from the columns of
+     * a model. The array is not copied: it becomes the property of this object
+     * and must not be modified by the caller afterwards. The indices must have
+     * been validated against the model already.
+     *
+     * @param model the model from which this excuse was generated. This may
+     * not be {@code null}.
+     * @param indices the index of the selected entry in each column of the
+     * model.
+     * @since 1.0.0.1
+     */
+    BOFHExcuse(BOFHExcuseModel model, int[] indices)
+    {
+        this.components = null;
+        this.indices = indices;
         this.model = model;
+        this.hash = computeHash();
     }
 
     /**
      * Returns a list of the components of the excuse. The returned list is
-     * immutable.
+     * immutable. For an excuse backed by a model, the list is a lightweight
+     * view of the selected entries of the model's columns.
      *
      * @return an unmodifiable list of the components of this excuse.
      * @since 1.0.0.0
      */
     public List<String> getComponents()
     {
+        if(indices != null)
+            return new ComponentList();
         return components;
     }
 
+    /**
+     * Returns the index of the selected entry in each column of the model. The
+     * returned array is a copy that may be modified freely.
+     *
+     * @return the indices of the components of this excuse within the columns
+     * of its model, or {@code null} if this is not an excuse backed by a model.
+     * @since 1.0.0.1
+     */
+    public int[] getIndices()
+    {
+        return (indices == null) ? null : indices.clone();
+    }
+
+    /**
+     * Returns the internal array of indices without copying it. This method is
+     * intended for use by the model, which must not modify the result.
+     *
+     * @return the internal indices of this excuse, or {@code null} if it is
+     * not backed by a model.
+     * @since 1.0.0.1
+     */
+    int[] getIndexArray()
+    {
+        return indices;
+    }
+
     /**
      * Returns the model from which this object was generated. If this is a
      * standalone excuse, the model will be {@code null}. The components of this
@@ -141,13 +245,96 @@ public class BOFHExcuse implements Serializable
 
     /**
      * Returns the text of the excuse. This is a space separated sequence of the
-     * components of the excuse.
+     * components of the excuse. The text is rendered on the first call and
+     * cached for subsequent ones.
      *
      * @return the text of the excuse.
      * @since 1.0.0.0
      */
     @Override public String toString()
     {
+        String result = text;
+        if(result == null) {
+            if(BOFHMetrics.isRecording()) {
+                long start = System.nanoTime();
+                result = render();
+                BOFHMetrics.recordToString(System.nanoTime() - start);
+            } else {
+                result = render();
+            }
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if this excuse is equal to another object. Excuses backed by a
+     * model are compared by the identity of the model and the selected
+     * indices. Standalone excuses are compared by their components and the
+     * identity of their model.
+     *
+     * @param o the object to compare to.
+     * @return {@code true} if the object is an equal excuse.
+     * @since 1.0.0.3
+     */
+    @Override public boolean equals(Object o)
+    {
+        if(o == this)
+            return true;
+        if(!(o instanceof BOFHExcuse))
+            return false;
+        BOFHExcuse other = (BOFHExcuse)o;
+        if(model != other.model)
+            return false;
+        if(indices != null || other.indices != null)
+            return Arrays.equals(indices, other.indices);
+        return Objects.equals(components, other.components);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}. The hash
+     * code is only computed once.
+     *
+     * @return the hash code of this excuse.
+     * @since 1.0.0.3
+     */
+    @Override public int hashCode()
+    {
+        int result = hash;
+        if(result == 0)
+            hash = result = computeHash();
+        return result;
+    }
+
+    /**
+     * Computes the hash code of this excuse from the identity of its model and
+     * either its indices or its components.
+     *
+     * @return the hash code of this excuse.
+     * @since 1.0.0.3
+     */
+    private int computeHash()
+    {
+        int result = System.identityHashCode(model);
+        if(indices != null)
+            return 31 * result + Arrays.hashCode(indices);
+        return 31 * result + Objects.hashCode(components);
+    }
+
+    /**
+     * Renders the text of the excuse from its components or indices.
+     *
+     * @return the text of the excuse, or {@code null} if this excuse has no
+     * components.
+     * @since 1.0.0.2
+     */
+    private String render()
+    {
+        if(indices != null) {
+            StringBuilder sb = new StringBuilder(model.getExcuseLength(indices));
+            model.appendExcuse(sb, indices);
+            return sb.toString();
+        }
         if(components == null)
             return null;
         StringBuilder sb = new StringBuilder();
@@ -162,4 +349,23 @@ public class BOFHExcuse implements Serializable
         }
         return sb.toString();
     }
+
+    /**
+     * A read-only view of the components of an excuse backed by a model. The
+     * elements are looked up in the columns of the model on every access.
+     *
+     * @since 1.0.0.1
+     */
+    private class ComponentList extends AbstractList<String> implements RandomAccess
+    {
+        @Override public String get(int index)
+        {
+            return model.getColumn(index).get(indices[index]);
+        }
+
+        @Override public int size()
+        {
+            return indices.length;
+        }
+    }
 }
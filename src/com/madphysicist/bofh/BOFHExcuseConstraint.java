@@ -0,0 +1,70 @@
+/*
+ * BOFHExcuseConstraint.java (Interface: com.madphysicist.bofh.BOFHExcuseConstraint)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+/**
+ * Declares which entries of adjacent columns of a {@link BOFHExcuseModel} may
+ * appear together in an excuse. Rules are expressed in terms of classes rather
+ * than individual entries: every entry of a column is assigned a class, such
+ * as singular or plural, and compatibility is decided between the classes of
+ * neighboring entries. This keeps the number of rules small no matter how
+ * many entries the columns hold.
+ * <p>
+ * A constraint is only consulted while it is being {@linkplain
+ * BOFHExcuseModel#withConstraint(BOFHExcuseConstraint) compiled} into a model.
+ * Its answers must therefore be consistent for the duration of that call.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+public interface BOFHExcuseConstraint
+{
+    /**
+     * Assigns an entry of a column to a class. Classes are arbitrary integers,
+     * and are only compared with other classes of the same column.
+     *
+     * @param column the index of the column.
+     * @param phrase the entry to classify. This may be {@code null}.
+     * @return the class of the entry.
+     * @since 1.0.0.0
+     */
+    public int classify(int column, String phrase);
+
+    /**
+     * Checks if entries of two classes may follow each other in an excuse.
+     *
+     * @param column the index of the left column. The right column is the one
+     * immediately after it.
+     * @param leftClass the class of the entry in the left column.
+     * @param rightClass the class of the entry in the right column.
+     * @return {@code true} if the entries may appear next to each other.
+     * @since 1.0.0.0
+     */
+    public boolean isCompatible(int column, int leftClass, int rightClass);
+}
@@ -53,6 +53,9 @@ import com.madphysicist.tools.swing.CasinoSpinner;
  * @version 1.0.0.0, 11 Feb 2013
  * @version 1.0.0.1, 10 Apr 2013 - Refactored BOFHColumn into a public class.
  *                                 Added public accessors for column elements.
+ * @version 1.0.0.2, 16 Oct 2026 - Added metrics.
+ * @version 1.0.0.3, 16 Oct 2026 - Added coordinated painting.
+ * @version 1.0.0.4, 16 Oct 2026 - Limited the size of the spinners.
  * @since 1.0.0.0
  */
 public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
@@ -68,6 +71,15 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
      */
     private static final long serialVersionUID = 1000L;
 
+    /**
+     * The maximum number of entries shown by each spinner of a generator that
+     * is created without specifying one. The value of this constant is
+     * {@value}.
+     *
+     * @since 1.0.0.4
+     */
+    public static final int DEFAULT_SPINNER_SIZE = 1024;
+
     /**
      * A list of the graphical columns displayed by the GUI. Each column
      * provides a view to the underlying {@code BOFHExcuseModel} column via the
@@ -100,6 +112,15 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
      */
     private JButton bigButton;
 
+    /**
+     * The clock that paints this generator once per frame, or {@code null} if
+     * the generator is painted normally. The clock is not serialized.
+     *
+     * @see #setFrameClock(BOFHFrameClock)
+     * @since 1.0.0.3
+     */
+    private transient BOFHFrameClock frameClock;
+
     /**
      * Creates a default view of the default model.
      *
@@ -120,8 +141,30 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
      */
     public BOFHExcuseGenerator(BOFHExcuseModel model)
     {
+        this(model, DEFAULT_SPINNER_SIZE);
+    }
+
+    /**
+     * Creates a view of the specified model with spinners of limited size.
+     * Columns with more entries than a spinner can show are displayed through
+     * a random sample of that size, drawn the same way as random excuses. A
+     * new sample is drawn for every spin, so any entry can come up, but only
+     * the sampled entries are ever looked up in the model. The memory used by
+     * the generator and the time it takes to set up do not depend on the size
+     * of the model.
+     *
+     * @param model the model to use for this generator. All columns will be
+     * displayed in their own {@code CasinoSpinner} component.
+     * @param spinnerSize the maximum number of entries in each spinner.
+     * @throws IllegalArgumentException if the spinner size is not positive.
+     * @since 1.0.0.4
+     */
+    public BOFHExcuseGenerator(BOFHExcuseModel model, int spinnerSize)
+    {
+        if(spinnerSize <= 0)
+            throw new IllegalArgumentException("Spinner size: " + spinnerSize);
         this.model = model;
-        initComponents();
+        initComponents(spinnerSize);
     }
 
     /**
@@ -133,10 +176,11 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
      * <li>{@link #bigButton} is initialized and added to the North side.</li>
      * <li>A panel for the columns is initialized and added to the center.</li>
      * </ul>
-     * 
+     *
+     * @param spinnerSize the maximum number of entries in each spinner.
      * @since 1.0.0.0
      */
-    private void initComponents()
+    private void initComponents(int spinnerSize)
     {
         setBorder(new BevelBorder(BevelBorder.RAISED));
         setLayout(new BorderLayout());
@@ -160,7 +204,9 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
 
         // add the columns to the panel
         for(int index = 0; index < model.getColumnCount(); index++) {
-            BOFHColumn column = new BOFHColumn(model.getColumn(index));
+            List<String> entries = model.getColumn(index);
+            BOFHColumn column = (entries.size() <= spinnerSize) ? new BOFHColumn(entries)
+                    : new BOFHColumn(BOFHSpinnerWindow.sampler(model, index, spinnerSize));
             constraints.gridx = index;
             columnPanel.add(column, constraints);
             columns.add(column);
@@ -202,10 +248,43 @@ public class BOFHExcuseGenerator extends JPanel implements Iterable<BOFHColumn>
      */
     public void spinAll()
     {
+        BOFHMetrics.recordGeneratorSpin();
         for(BOFHColumn column : this.columns)
             column.spin();
     }
 
+    /**
+     * Sets the clock that paints this generator. While a clock is set, the
+     * repaints requested by the spinners of all the columns are merged and
+     * painted once per frame. Many generators can share one clock, which
+     * must also be the {@linkplain BOFHFrameClock#install() current repaint
+     * manager} to take effect.
+     *
+     * @param clock the clock to paint this generator with, or {@code null} to
+     * paint it normally.
+     * @since 1.0.0.3
+     */
+    public void setFrameClock(BOFHFrameClock clock)
+    {
+        if(frameClock != null)
+            frameClock.detach(this);
+        this.frameClock = clock;
+        if(clock != null)
+            clock.attach(this);
+    }
+
+    /**
+     * Returns the clock that paints this generator.
+     *
+     * @return the clock of this generator, or {@code null} if it is painted
+     * normally.
+     * @since 1.0.0.3
+     */
+    public BOFHFrameClock getFrameClock()
+    {
+        return frameClock;
+    }
+
     /**
      * Returns the number of columns in this generator. This method is a
      * convenience for {@code getModel().getColumnCount()}.
@@ -27,12 +27,15 @@
  */
 package com.madphysicist.bofh;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -40,15 +43,60 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implements a multi-column model for a BOFH excuse generator. To generate a
  * BOFH excuse, one word (any word) should be selected from each column. The
  * excuse model can be configured from a set of properties files or directly
  * from arrays of strings. The contents of this class are immutable.
+ * <p>
+ * Random excuses can be generated from any {@link Random} source. The methods
+ * that do not accept a source use the {@link ThreadLocalRandom} of the calling
+ * thread, so that threads generating excuses at the same time do not contend
+ * with each other. A {@link BOFHSplittableRandom} with a fixed seed provides a
+ * reproducible sequence of excuses.
+ * <p>
+ * Phrases may be weighted to make some of them more likely than others. In a
+ * column file, a weight is appended to a line after a {@link
+ * #WEIGHT_SEPARATOR}. Random selection from a weighted column uses an alias
+ * table, so it takes constant time no matter how many phrases the column
+ * holds. Weights only affect random selection: ranks, streams of all excuses
+ * and permutations treat every excuse alike.
+ * <p>
+ * A model can also be {@linkplain #withConstraint(BOFHExcuseConstraint)
+ * constrained}, so that random excuses never combine incompatible entries of
+ * adjacent columns. Constrained sampling is still done in constant time per
+ * column, without generating and rejecting invalid excuses. As with weights,
+ * constraints only affect random selection.
  *
  * @author Joseph Fox-Rabinovitz
  * @version 1.0.0.0, 11 Feb 2013
+ * @version 1.0.0.1, 16 Oct 2026 - Excuses are now backed by indices.
+ * @version 1.0.0.2, 16 Oct 2026 - Added bulk generation into an Appendable.
+ * @version 1.0.0.3, 16 Oct 2026 - Made the source of randomness pluggable.
+ * @version 1.0.0.4, 16 Oct 2026 - Added sequential and parallel streams.
+ * @version 1.0.0.5, 16 Oct 2026 - Added rank-based addressing of excuses.
+ * @version 1.0.0.6, 16 Oct 2026 - Added non-repeating excuse generation.
+ * @version 1.0.0.7, 16 Oct 2026 - Added memory-mapped loading from paths.
+ * @version 1.0.0.8, 16 Oct 2026 - Stored columns in compact UTF-8 arenas.
+ * @version 1.0.0.9, 16 Oct 2026 - Added the precompiled binary model format.
+ * @version 1.0.0.10, 16 Oct 2026 - Added model versions for hot reloading.
+ * @version 1.0.0.11, 16 Oct 2026 - Added the maximum encoded excuse length.
+ * @version 1.0.0.12, 16 Oct 2026 - Added weighted phrases.
+ * @version 1.0.0.13, 16 Oct 2026 - Added compatibility constraints.
+ * @version 1.0.0.14, 16 Oct 2026 - Added deduplication of entries.
+ * @version 1.0.0.15, 16 Oct 2026 - Added searching by words.
+ * @version 1.0.0.16, 16 Oct 2026 - Added metrics.
+ * @version 1.0.0.17, 16 Oct 2026 - Loaded resource files in parallel.
+ * @version 1.0.0.18, 16 Oct 2026 - Appended bulk excuses without intermediate strings.
+ * @version 1.0.0.19, 16 Oct 2026 - Rejected deduplication of constrained models.
+ * @version 1.0.0.20, 16 Oct 2026 - Recorded metrics only for loaded models.
  * @since 1.0.0.0
  */
 public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
@@ -62,7 +110,7 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      * serialized versions of of the class incompatible with previous releases.
      * @since 1.0.0.0
      */
-    private static final long serialVersionUID = 1000L;
+    private static final long serialVersionUID = 2001L;
 
     /**
      * Lines in the configuration file starting with this prefix after optional
@@ -75,13 +123,16 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
     public static final String COMMENT_PREFIX = "#";
 
     /**
-     * A {@code Random} object used to generate random excuses. The {@link
-     * Random#nextInt(int)} method is used to pick an index within each column.
+     * Separates an entry from its weight in a column file. A line ending with
+     * this character followed by a non-negative decimal number gives the entry
+     * before the separator that relative weight. Entries without a weight have
+     * a weight of one. If the text after the last separator is not a valid
+     * number, the whole line is the entry. The value of this constant is
+     * {@value}.
      *
-     * @see #getRandomExcuse()
-     * @since 1.0.0.0
+     * @since 1.0.0.12
      */
-    private static final Random RANDOMIZER = new Random();
+    public static final char WEIGHT_SEPARATOR = '|';
 
     /**
      * An array of the default files that is expected to provide lists of words
@@ -93,19 +144,62 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     private static final String[] DEFAULT_FILES = new String[] {"A", "B", "C", "D"};
 
+    /**
+     * The columns of the model. Each column stores its entries compactly in a
+     * single UTF-8 arena, and presents them as an unmodifiable list of strings.
+     *
+     * @serial
+     * @since 1.0.0.8
+     */
+    private final BOFHPhraseColumn[] columns;
+
     /**
      * A list of the columns and their contents. This list is unmodifiable, so
      * it can be passed outside the class and used freely. The lists it contains
-     * for each column are similarly unmodifiable.
+     * for each column are similarly unmodifiable. This list is a view of the
+     * {@link #columns} array.
      *
      * @serial
      * @since 1.0.0.0
      */
     private final List<List<String>> excuseLists;
 
+    /**
+     * The version of the contents of this model. Models that are reloaded when
+     * their source files change are given increasing versions, so that caches
+     * of excuses can tell when they are stale. The version of a model that is
+     * not reloaded is zero.
+     *
+     * @serial
+     * @see BOFHModelWatcher
+     * @since 1.0.0.10
+     */
+    private final long version;
+
+    /**
+     * The compiled compatibility constraint of this model, or {@code null} if
+     * the model is not constrained.
+     *
+     * @serial
+     * @since 1.0.0.13
+     */
+    private final BOFHConstraintTable constraints;
+
+    /**
+     * The inverted word index of the columns, or {@code null} if it has not
+     * been needed yet. The index is built on the first search, so that models
+     * that are never searched do not pay for it.
+     *
+     * @see #getWordIndex()
+     * @since 1.0.0.15
+     */
+    private transient volatile BOFHWordIndex wordIndex;
+
     /**
      * Creates a default excuse model based on default configutation files. The
      * defaults should contain the original version of the BOFH excuse model.
+     * If the build has precompiled the default files into a binary model, the
+     * binary model is loaded instead of parsing the files.
      *
      * @throws IOException if the default lists could not be found, opened or
      * read.
@@ -113,7 +207,8 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public BOFHExcuseModel() throws IOException
     {
-        this(DEFAULT_FILES);
+        this(loadDefault());
+        BOFHMetrics.recordModel(this);
     }
 
     /**
@@ -135,12 +230,35 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
     public BOFHExcuseModel(String[] excuseFiles) throws IOException
     {
         this(loadFiles(excuseFiles));
+        BOFHMetrics.recordModel(this);
+    }
+
+    /**
+     * Constructs a model from the specified files on the file system. The
+     * files have the same format as those accepted by {@link
+     * #BOFHExcuseModel(String[])}. Each file is memory-mapped and parsed
+     * directly from the mapped buffer, and the files are parsed in parallel.
+     * Columns will be loaded in the same order as they appear in the file
+     * list.
+     *
+     * @param excuseFiles a list of paths, each one defining a column of the
+     * excuse model.
+     * @param charset the character set of the files.
+     * @throws IOException if any of the specified files could not be found,
+     * opened or read.
+     * @since 1.0.0.7
+     */
+    public BOFHExcuseModel(Path[] excuseFiles, Charset charset) throws IOException
+    {
+        this(loadPaths(excuseFiles, charset));
+        BOFHMetrics.recordModel(this);
     }
 
     /**
      * Constructs an excuse model from user-defined arrays of excuse words. Both
      * levels of arrays are copied internally, so that subsequent changes will
-     * not affect the contents of this object.
+     * not affect the contents of this object. The words are stored in the same
+     * compact form as columns that are loaded from files.
      *
      * @param excuseArrays arrays of excuse words. Each sub-array represents a
      * column in the model.
@@ -148,19 +266,110 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public BOFHExcuseModel(String[][] excuseArrays)
     {
-        List<List<String>> mutableList = new ArrayList<>(excuseArrays.length);
-        for(String[] array : excuseArrays) {
-            List<String> list = new ArrayList<>(array.length);
-            list.addAll(Arrays.asList(array));
-            mutableList.add(Collections.unmodifiableList(list));
-        }
-        this.excuseLists = Collections.unmodifiableList(mutableList);
+        this(toColumns(excuseArrays, null));
+    }
+
+    /**
+     * Constructs an excuse model from user-defined arrays of excuse words and
+     * their weights. All arrays are copied internally, so that subsequent
+     * changes will not affect the contents of this object.
+     *
+     * @param excuseArrays arrays of excuse words. Each sub-array represents a
+     * column in the model.
+     * @param weightArrays the relative weight of each word. Each sub-array
+     * must have the same length as the corresponding column, or be {@code
+     * null} to make all the words in that column equally likely.
+     * @throws IllegalArgumentException if the weights of a column do not match
+     * its size, any weight is negative or not finite, or all the weights of a
+     * column are zero.
+     * @since 1.0.0.12
+     */
+    public BOFHExcuseModel(String[][] excuseArrays, double[][] weightArrays)
+    {
+        this(toColumns(excuseArrays, weightArrays));
+    }
+
+    /**
+     * Constructs an excuse model from a set of columns. The array is copied,
+     * but the columns are immutable and can be shared.
+     *
+     * @param columns the columns of the model.
+     * @since 1.0.0.8
+     */
+    private BOFHExcuseModel(BOFHPhraseColumn[] columns)
+    {
+        this(columns, 0L);
+    }
+
+    /**
+     * Constructs a versioned excuse model from a set of columns. The array is
+     * copied, but the columns are immutable and can be shared.
+     *
+     * @param columns the columns of the model.
+     * @param version the version of the model.
+     * @since 1.0.0.10
+     */
+    private BOFHExcuseModel(BOFHPhraseColumn[] columns, long version)
+    {
+        this(columns, version, null);
+    }
+
+    /**
+     * Constructs a versioned and possibly constrained excuse model from a set
+     * of columns. The array is copied, but the columns and constraints are
+     * immutable and can be shared.
+     *
+     * @param columns the columns of the model.
+     * @param version the version of the model.
+     * @param constraints the compiled constraints, or {@code null}.
+     * @since 1.0.0.13
+     */
+    private BOFHExcuseModel(BOFHPhraseColumn[] columns, long version, BOFHConstraintTable constraints)
+    {
+        this.columns = columns.clone();
+        this.excuseLists = Collections.unmodifiableList(Arrays.<List<String>>asList(this.columns));
+        this.version = version;
+        this.constraints = constraints;
+    }
+
+    /**
+     * Reads a model from its precompiled binary form. The binary form is read
+     * in bulk, and the columns are used as they are stored, without parsing
+     * individual entries.
+     *
+     * @param in the stream to read from. The stream is not closed.
+     * @return the model read from the stream.
+     * @throws IOException if the stream could not be read or does not contain
+     * a valid binary model.
+     * @see #writeModel(OutputStream)
+     * @since 1.0.0.9
+     */
+    public static BOFHExcuseModel readModel(InputStream in) throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHModelFormat.read(in));
+        BOFHMetrics.recordModel(model);
+        return model;
+    }
+
+    /**
+     * Writes the precompiled binary form of this model. The result can be
+     * loaded with {@link #readModel(InputStream)} much faster than the text
+     * files that the model was originally loaded from can be parsed.
+     *
+     * @param out the stream to write to. The stream is not closed.
+     * @throws IOException if the stream throws an exception.
+     * @since 1.0.0.9
+     */
+    public void writeModel(OutputStream out) throws IOException
+    {
+        BOFHModelFormat.write(columns, out);
     }
 
     /**
      * Creates an excuse based on the specified selection from each column. The
      * excuse can be turned into a {@code String} by invoking {@link
-     * BOFHExcuse#toString()} on the result.
+     * BOFHExcuse#toString()} on the result. The array of indices is copied, so
+     * subsequent changes to it do not affect the excuse.
      *
      * @param indices an array of indices, one from each column.
      * @return an excuse encapsulating the specified selection from each column.
@@ -172,21 +381,22 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public BOFHExcuse getExcuse(int[] indices)
     {
-        if(indices.length != excuseLists.size())
+        if(indices.length != columns.length)
             throw new ArrayIndexOutOfBoundsException(indices.length);
-        
-        List<String> components = new ArrayList<>(indices.length);
-        
-        // initialize components (may also throw ArrayIndexOutOfBounds
-        for(int index = 0; index < indices.length; index++)
-            components.add(excuseLists.get(index).get(indices[index]));
 
-        return new BOFHExcuse(components);
+        for(int index = 0; index < indices.length; index++) {
+            if(indices[index] < 0 || indices[index] >= columns[index].size())
+                throw new IndexOutOfBoundsException("Column " + index + ": " + indices[index]);
+        }
+
+        return new BOFHExcuse(this, indices.clone());
     }
 
     /**
      * Generates a random excuse from this model. A random element is picked
-     * from each of the model's columns.
+     * from each of the model's columns using the generator of the current
+     * thread. The excuse only records the selected indices: its components and
+     * text are looked up when they are requested.
      *
      * @return an excuse encapsulating a random selection from each column. This
      * model is the referenced by the excuse.
@@ -194,10 +404,635 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public BOFHExcuse getRandomExcuse()
     {
-        int[] randomIndices = new int[excuseLists.size()];
-        for(int index = 0; index < randomIndices.length; index++)
-            randomIndices[index] = RANDOMIZER.nextInt(excuseLists.get(index).size());
-        return getExcuse(randomIndices);
+        return getRandomExcuse(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generates a random excuse from this model using the specified source of
+     * randomness. The {@link Random#nextInt(int)} method of the source is used
+     * to pick an index within each column. Weighted columns also use {@link
+     * Random#nextDouble()} to choose between an index and its alias.
+     *
+     * @param random the source of randomness.
+     * @return an excuse encapsulating a random selection from each column. This
+     * model is the referenced by the excuse.
+     * @since 1.0.0.3
+     */
+    public BOFHExcuse getRandomExcuse(Random random)
+    {
+        if(!BOFHMetrics.isRecording())
+            return new BOFHExcuse(this, getRandomIndices(null, random));
+
+        long start = System.nanoTime();
+        BOFHExcuse excuse = new BOFHExcuse(this, getRandomIndices(null, random));
+        BOFHMetrics.recordRandomExcuse(System.nanoTime() - start);
+        return excuse;
+    }
+
+    /**
+     * Selects a random element from each of the model's columns without
+     * creating an excuse, using the generator of the current thread. This
+     * method allows callers that generate excuses at a high rate to reuse a
+     * single array. The selection can be turned into an excuse with {@link
+     * #getExcuse(int[])}, or its components can be looked up directly in the
+     * {@linkplain #getColumn(int) columns}.
+     *
+     * @param indices an array to fill with one index per column. If the array
+     * is {@code null}, a new one is allocated.
+     * @return the filled array of indices.
+     * @throws IndexOutOfBoundsException if the array is not {@code null} and
+     * its length does not match the number of columns.
+     * @since 1.0.0.1
+     */
+    public int[] getRandomIndices(int[] indices)
+    {
+        return getRandomIndices(indices, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects a random element from each of the model's columns without
+     * creating an excuse, using the specified source of randomness.
+     *
+     * @param indices an array to fill with one index per column. If the array
+     * is {@code null}, a new one is allocated.
+     * @param random the source of randomness.
+     * @return the filled array of indices.
+     * @throws IndexOutOfBoundsException if the array is not {@code null} and
+     * its length does not match the number of columns.
+     * @see #getRandomIndices(int[])
+     * @since 1.0.0.3
+     */
+    public int[] getRandomIndices(int[] indices, Random random)
+    {
+        if(indices == null)
+            indices = new int[columns.length];
+        else if(indices.length != columns.length)
+            throw new ArrayIndexOutOfBoundsException(indices.length);
+
+        if(constraints != null) {
+            constraints.sample(indices, random);
+        } else {
+            for(int index = 0; index < indices.length; index++)
+                indices[index] = columns[index].sample(random);
+        }
+        return indices;
+    }
+
+    /**
+     * Writes the text of a number of random excuses directly to the specified
+     * destination. Each excuse is followed by a single newline ({@code '\n'})
+     * character. The text of each excuse is identical to what would be
+     * returned by {@code getRandomExcuse().toString()}, but no intermediate
+     * excuse or string objects are created: the column entries are appended to
+     * the destination one at a time. This method is meant for generating large
+     * batches of excuses. A {@link java.io.Writer Writer} destination should
+     * be buffered, since it will receive many small writes.
+     *
+     * @param out the destination of the excuses.
+     * @param count the number of excuses to write.
+     * @throws IOException if the destination throws an exception. Some of the
+     * excuses may have been written already.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.2
+     */
+    public void writeRandomExcuses(Appendable out, long count) throws IOException
+    {
+        writeRandomExcuses(out, count, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Writes the text of a number of random excuses directly to the specified
+     * destination, using the specified source of randomness. The output is
+     * formatted exactly as for {@link #writeRandomExcuses(Appendable, long)}.
+     *
+     * @param out the destination of the excuses.
+     * @param count the number of excuses to write.
+     * @param random the source of randomness.
+     * @throws IOException if the destination throws an exception. Some of the
+     * excuses may have been written already.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.3
+     */
+    public void writeRandomExcuses(Appendable out, long count, Random random) throws IOException
+    {
+        if(count < 0L)
+            throw new IllegalArgumentException("Negative count: " + count);
+
+        int[] indices = new int[columns.length];
+        for(long excuse = 0L; excuse < count; excuse++) {
+            appendExcuse(out, getRandomIndices(indices, random));
+            out.append('\n');
+        }
+        if(BOFHMetrics.isRecording())
+            BOFHMetrics.recordGenerated(count);
+    }
+
+    /**
+     * Writes the UTF-8 text of a number of random excuses directly into the
+     * specified buffer. Each excuse is followed by a single newline character.
+     * The encoded phrases are copied straight from the columns of the model,
+     * without creating any intermediate objects. Writing stops early if the
+     * next excuse does not fit in the remaining space of the buffer.
+     *
+     * @param out the buffer to write to.
+     * @param count the maximum number of excuses to write.
+     * @return the number of excuses actually written.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.8
+     */
+    public long writeRandomExcuses(ByteBuffer out, long count)
+    {
+        return writeRandomExcuses(out, count, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Writes the UTF-8 text of a number of random excuses directly into the
+     * specified buffer, using the specified source of randomness. The output
+     * is formatted exactly as for {@link #writeRandomExcuses(ByteBuffer,
+     * long)}.
+     *
+     * @param out the buffer to write to.
+     * @param count the maximum number of excuses to write.
+     * @param random the source of randomness.
+     * @return the number of excuses actually written.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.8
+     */
+    public long writeRandomExcuses(ByteBuffer out, long count, Random random)
+    {
+        if(count < 0L)
+            throw new IllegalArgumentException("Negative count: " + count);
+
+        int[] indices = new int[columns.length];
+        for(long excuse = 0L; excuse < count; excuse++) {
+            getRandomIndices(indices, random);
+            if(out.remaining() < getExcuseByteLength(indices) + 1) {
+                count = excuse;
+                break;
+            }
+            putExcuse(out, indices);
+            out.put((byte)'\n');
+        }
+        if(BOFHMetrics.isRecording())
+            BOFHMetrics.recordGenerated(count);
+        return count;
+    }
+
+    /**
+     * Returns the total number of distinct excuses that this model can
+     * generate. This is the product of the sizes of all the columns. Each
+     * excuse has a rank between zero (inclusive) and this number (exclusive).
+     * The last column varies the fastest with the rank, so the excuses are
+     * ranked as the readings of a multi-digit odometer.
+     *
+     * @return the number of excuses in this model.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @see #getExcuse(long)
+     * @see #rankOf(BOFHExcuse)
+     * @since 1.0.0.5
+     */
+    public long size()
+    {
+        long count = 1L;
+        for(BOFHPhraseColumn column : columns)
+            count = Math.multiplyExact(count, column.size());
+        return count;
+    }
+
+    /**
+     * Creates the excuse with the specified rank. This is the inverse of
+     * {@link #rankOf(BOFHExcuse)}.
+     *
+     * @param rank the rank of the excuse, between zero (inclusive) and {@link
+     * #size()} (exclusive).
+     * @return the excuse with the specified rank.
+     * @throws IndexOutOfBoundsException if the rank is out of bounds.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.5
+     */
+    public BOFHExcuse getExcuse(long rank)
+    {
+        return new BOFHExcuse(this, getIndices(rank, null));
+    }
+
+    /**
+     * Computes the column indices of the excuse with the specified rank without
+     * creating an excuse.
+     *
+     * @param rank the rank of the excuse, between zero (inclusive) and {@link
+     * #size()} (exclusive).
+     * @param indices an array to fill with one index per column. If the array
+     * is {@code null}, a new one is allocated.
+     * @return the filled array of indices.
+     * @throws IndexOutOfBoundsException if the rank is out of bounds, or if
+     * the array is not {@code null} and its length does not match the number
+     * of columns.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.5
+     */
+    public int[] getIndices(long rank, int[] indices)
+    {
+        if(indices == null)
+            indices = new int[columns.length];
+        else if(indices.length != columns.length)
+            throw new ArrayIndexOutOfBoundsException(indices.length);
+
+        if(rank < 0L || rank >= size())
+            throw new IndexOutOfBoundsException("Rank: " + rank);
+
+        return decodeRank(rank, indices);
+    }
+
+    /**
+     * Computes the rank of the specified excuse. The rank can be used to store
+     * or transmit the excuse compactly, and to recreate it with {@link
+     * #getExcuse(long)}.
+     *
+     * @param excuse an excuse generated by this model.
+     * @return the rank of the excuse.
+     * @throws IllegalArgumentException if the excuse was not generated by this
+     * model.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.5
+     */
+    public long rankOf(BOFHExcuse excuse)
+    {
+        if(excuse.getModel() != this || excuse.getIndexArray() == null)
+            throw new IllegalArgumentException("Excuse does not belong to this model");
+        return rankOf(excuse.getIndexArray());
+    }
+
+    /**
+     * Computes the rank of the excuse with the specified column indices.
+     *
+     * @param indices an array containing one index per column.
+     * @return the rank of the selected excuse.
+     * @throws IndexOutOfBoundsException if the length of indices does not match
+     * the number of columns or any of the specified indices do not fall within
+     * the bounds of the corresponding column.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.5
+     */
+    public long rankOf(int[] indices)
+    {
+        if(indices.length != columns.length)
+            throw new ArrayIndexOutOfBoundsException(indices.length);
+
+        long rank = 0L;
+        for(int index = 0; index < indices.length; index++) {
+            int size = columns[index].size();
+            if(indices[index] < 0 || indices[index] >= size)
+                throw new IndexOutOfBoundsException("Column " + index + ": " + indices[index]);
+            rank = Math.addExact(Math.multiplyExact(rank, size), indices[index]);
+        }
+        return rank;
+    }
+
+    /**
+     * Creates a generator that draws every excuse of this model once, in a
+     * pseudo-random order determined by the specified key, before repeating
+     * any of them. The generator uses constant memory regardless of the size
+     * of the model.
+     *
+     * @param key the key that determines the order of the excuses.
+     * @return a generator of non-repeating excuses.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @see BOFHExcusePermutation
+     * @since 1.0.0.6
+     */
+    public BOFHExcusePermutation getExcusePermutation(long key)
+    {
+        return new BOFHExcusePermutation(this, key);
+    }
+
+    /**
+     * Returns a sequential stream of every excuse that can be generated by
+     * this model. The stream contains one excuse for each combination of
+     * column entries. The last column varies the fastest, so the excuses are
+     * ordered as the entries of a multi-digit odometer.
+     *
+     * @return a stream of all the excuses of this model.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> excuseStream()
+    {
+        return StreamSupport.stream(new ExcuseSpliterator(this, 0L, size()), false);
+    }
+
+    /**
+     * Counts the excuses that mention any of the specified search terms. Words
+     * are runs of letters and digits, and are compared without regard to case.
+     * An entry matches a term if it contains every word of the term, and an
+     * excuse matches if any of its entries matches any of the terms. The count
+     * is computed from the number of matching entries in each column, without
+     * enumerating any excuses.
+     *
+     * @param terms the search terms.
+     * @return the exact number of matching excuses.
+     * @throws ArithmeticException if the number of excuses in this model
+     * exceeds {@code Long.MAX_VALUE}.
+     * @since 1.0.0.15
+     */
+    public long countMatches(String... terms)
+    {
+        BOFHWordIndex index = getWordIndex();
+        return index.count(match(index, terms));
+    }
+
+    /**
+     * Returns a stream of the excuses that mention any of the specified search
+     * terms, as defined by {@link #countMatches(String...)}. The excuses are
+     * generated lazily, in order of the first column containing a match. Each
+     * excuse appears once.
+     *
+     * @param terms the search terms.
+     * @return a sequential stream of the matching excuses.
+     * @since 1.0.0.15
+     */
+    public Stream<BOFHExcuse> findMatches(String... terms)
+    {
+        BOFHWordIndex index = getWordIndex();
+        int[][] matches = match(index, terms);
+        long size;
+        try {
+            size = index.count(matches);
+        } catch(ArithmeticException ae) {
+            size = -1L;
+        }
+        return StreamSupport.stream(index.spliterator(this, matches, size), false);
+    }
+
+    /**
+     * Finds the entries of every column that match any of the search terms.
+     *
+     * @param index the word index of this model.
+     * @param terms the search terms.
+     * @return the sorted matching entries of each column.
+     * @since 1.0.0.15
+     */
+    private int[][] match(BOFHWordIndex index, String[] terms)
+    {
+        int[][] matches = new int[columns.length][];
+        for(int column = 0; column < columns.length; column++)
+            matches[column] = index.match(column, terms);
+        return matches;
+    }
+
+    /**
+     * Returns the word index of this model, building it if necessary.
+     *
+     * @return the word index of the columns.
+     * @since 1.0.0.15
+     */
+    private BOFHWordIndex getWordIndex()
+    {
+        BOFHWordIndex index = wordIndex;
+        if(index == null) {
+            synchronized(this) {
+                index = wordIndex;
+                if(index == null)
+                    wordIndex = index = new BOFHWordIndex(columns);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns a parallel stream of every excuse that can be generated by this
+     * model. This is the parallel version of {@link #excuseStream()}. The
+     * stream is sized, and splits evenly into contiguous ranges of excuses.
+     *
+     * @return a parallel stream of all the excuses of this model.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> parallelExcuseStream()
+    {
+        return StreamSupport.stream(new ExcuseSpliterator(this, 0L, size()), true);
+    }
+
+    /**
+     * Returns an effectively unlimited sequential stream of random excuses.
+     * The stream has a size of {@code Long.MAX_VALUE}, so it should be
+     * limited by the caller.
+     *
+     * @return a stream of random excuses.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> randomExcuseStream()
+    {
+        return randomExcuseStream(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a sequential stream of the specified number of random excuses.
+     *
+     * @param count the number of excuses in the stream.
+     * @return a stream of random excuses.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> randomExcuseStream(long count)
+    {
+        return randomExcuseStream(count, new BOFHSplittableRandom());
+    }
+
+    /**
+     * Returns a sequential stream of the specified number of random excuses
+     * drawn from the specified generator. The generator is used by the stream
+     * and should not be used elsewhere. When the stream is processed in
+     * parallel, each part of the stream obtains its own generator by
+     * {@linkplain BOFHSplittableRandom#split() splitting} its parent. A
+     * sequential stream with a seeded generator always produces the same
+     * sequence of excuses.
+     *
+     * @param count the number of excuses in the stream.
+     * @param random the source of randomness.
+     * @return a stream of random excuses.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> randomExcuseStream(long count, BOFHSplittableRandom random)
+    {
+        if(count < 0L)
+            throw new IllegalArgumentException("Negative count: " + count);
+        return StreamSupport.stream(new RandomExcuseSpliterator(this, random, 0L, count), false);
+    }
+
+    /**
+     * Returns a parallel stream of the specified number of random excuses.
+     * This is the parallel version of {@link #randomExcuseStream(long)}. Each
+     * part of the stream draws from its own generator, so the threads that
+     * process the stream do not contend with each other.
+     *
+     * @param count the number of excuses in the stream.
+     * @return a parallel stream of random excuses.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     * @since 1.0.0.4
+     */
+    public Stream<BOFHExcuse> parallelRandomExcuseStream(long count)
+    {
+        return randomExcuseStream(count).parallel();
+    }
+
+    /**
+     * Returns the version of the contents of this model. Models loaded by a
+     * {@link BOFHModelWatcher} receive a new, higher version every time their
+     * source files change. All other models have a version of zero. The
+     * version of an excuse is that of its {@linkplain BOFHExcuse#getModel()
+     * model}.
+     *
+     * @return the version of this model.
+     * @since 1.0.0.10
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Creates a copy of this model with the specified version. The columns are
+     * shared between the models.
+     *
+     * @param version the version of the new model.
+     * @return a model with the same contents as this one and the specified
+     * version.
+     * @since 1.0.0.10
+     */
+    BOFHExcuseModel withVersion(long version)
+    {
+        return new BOFHExcuseModel(columns, version, constraints);
+    }
+
+    /**
+     * Creates a copy of this model whose random excuses satisfy the specified
+     * constraint. The constraint is compiled into lookup tables immediately,
+     * and is not referenced by the new model. The columns are shared between
+     * the models.
+     * <p>
+     * Random excuses from the constrained model are distributed exactly as
+     * those of this model would be if the excuses violating the constraint
+     * were discarded. Methods that address or enumerate excuses by rank, such
+     * as {@link #getExcuse(long)}, {@link #excuseStream()} and {@link
+     * #getExcusePermutation(long)}, still cover every combination of entries.
+     *
+     * @param constraint the constraint to apply, or {@code null} to create an
+     * unconstrained copy.
+     * @return a constrained copy of this model.
+     * @throws IllegalArgumentException if no excuse satisfies the constraint.
+     * @since 1.0.0.13
+     */
+    public BOFHExcuseModel withConstraint(BOFHExcuseConstraint constraint)
+    {
+        return withConstraintTable((constraint == null) ? null : new BOFHConstraintTable(columns, constraint));
+    }
+
+    /**
+     * Checks if this model has a constraint.
+     *
+     * @return {@code true} if random excuses from this model are constrained.
+     * @since 1.0.0.13
+     */
+    public boolean isConstrained()
+    {
+        return constraints != null;
+    }
+
+    /**
+     * Checks if the specified selection of indices satisfies the constraint of
+     * this model. Every selection is allowed by an unconstrained model.
+     *
+     * @param indices a selection of one index per column.
+     * @return {@code true} if the excuse with the specified indices could be
+     * generated at random by this model.
+     * @throws IndexOutOfBoundsException if the length of the array does not
+     * match the number of columns, or any of the indices is out of range.
+     * @since 1.0.0.13
+     */
+    public boolean isAllowed(int[] indices)
+    {
+        if(indices.length != columns.length)
+            throw new ArrayIndexOutOfBoundsException(indices.length);
+
+        for(int index = 0; index < indices.length; index++) {
+            if(indices[index] < 0 || indices[index] >= columns[index].size())
+                throw new IndexOutOfBoundsException("Column " + index + ": " + indices[index]);
+        }
+
+        return constraints == null || constraints.isAllowed(indices);
+    }
+
+    /**
+     * Removes duplicate entries from each column of this model. Each distinct
+     * entry is kept once, at the position of its first occurrence, so that it
+     * is not favored by random selection. Optionally, phrases that appear in
+     * several columns are also stored only once. This model is not modified.
+     * <p>
+     * Deduplication renumbers the entries, so compiled constraints can not be
+     * carried over to the result. Constrained models must be deduplicated
+     * before the constraints are {@linkplain
+     * #withConstraint(BOFHExcuseConstraint) added}.
+     *
+     * @param intern whether to store each distinct phrase only once across
+     * all columns.
+     * @return the deduplicated model, along with the number of entries and
+     * bytes that were removed.
+     * @throws IllegalStateException if this model is constrained.
+     * @since 1.0.0.14
+     */
+    public BOFHDeduplication deduplicate(boolean intern)
+    {
+        if(isConstrained())
+            throw new IllegalStateException("Constrained models can not be deduplicated");
+        return BOFHDeduplication.deduplicate(columns, intern, this);
+    }
+
+    /**
+     * Creates an unconstrained copy of this model with the same version and
+     * different columns.
+     *
+     * @param columns the columns of the new model.
+     * @return a model with the specified columns.
+     * @since 1.0.0.14
+     */
+    BOFHExcuseModel withColumns(BOFHPhraseColumn[] columns)
+    {
+        return new BOFHExcuseModel(columns, version);
+    }
+
+    /**
+     * Returns the compiled constraint of this model.
+     *
+     * @return the constraint tables, or {@code null} if the model is not
+     * constrained.
+     * @since 1.0.0.13
+     */
+    BOFHConstraintTable getConstraintTable()
+    {
+        return constraints;
+    }
+
+    /**
+     * Creates a copy of this model with the specified compiled constraint. The
+     * constraint must have been compiled against columns with the same sizes
+     * as the columns of this model.
+     *
+     * @param constraints the compiled constraint, or {@code null}.
+     * @return a copy of this model with the constraint.
+     * @since 1.0.0.13
+     */
+    BOFHExcuseModel withConstraintTable(BOFHConstraintTable constraints)
+    {
+        return new BOFHExcuseModel(columns, version, constraints);
     }
 
     /**
@@ -208,7 +1043,7 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public int getColumnCount()
     {
-        return excuseLists.size();
+        return columns.length;
     }
 
     /**
@@ -224,7 +1059,27 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public List<String> getColumn(int index)
     {
-        return excuseLists.get(index);
+        return columns[index];
+    }
+
+    /**
+     * Returns the relative weight of an element of a column. The probability
+     * of selecting an element at random is its weight divided by the total
+     * weight of its column.
+     *
+     * @param column the index of the column.
+     * @param index the index of the element within the column.
+     * @return the weight of the element. This is one for all elements of a
+     * column that is not weighted.
+     * @throws IndexOutOfBoundsException if either index is out of range.
+     * @since 1.0.0.12
+     */
+    public double getWeight(int column, int index)
+    {
+        BOFHPhraseColumn phrases = columns[column];
+        if(index < 0 || index >= phrases.size())
+            throw new IndexOutOfBoundsException("Index: " + index);
+        return phrases.getWeight(index);
     }
 
     /**
@@ -257,7 +1112,7 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
      */
     public ListIterator<String> columnIterator(int column)
     {
-        return excuseLists.get(column).listIterator();
+        return columns[column].listIterator();
     }
 
     /**
@@ -274,7 +1129,8 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
     {
         StringBuilder sb = new StringBuilder();
         sb.append(super.toString());
-        sb.append("[numColumns=").append(this.excuseLists.size());
+        sb.append("[version=").append(this.version);
+        sb.append(", numColumns=").append(this.excuseLists.size());
         for(int i = 0; i < this.excuseLists.size(); i++) {
             sb.append(", column_").append(i).append('=');
             sb.append(this.excuseLists.get(i).toString());
@@ -283,48 +1139,417 @@ public class BOFHExcuseModel implements Serializable, Iterable<List<String>>
         return sb.toString();
     }
 
+    /**
+     * Converts the position of an excuse in the sequence of all excuses into
+     * the index of each of its components. The last column varies the fastest.
+     *
+     * The rank is not checked.
+     *
+     * @param rank the position of the excuse. This must be between zero
+     * (inclusive) and the number of excuses (exclusive).
+     * @param indices the array to fill with one index per column.
+     * @return {@code indices}.
+     * @see #getIndices(long, int[])
+     * @since 1.0.0.4
+     */
+    private int[] decodeRank(long rank, int[] indices)
+    {
+        for(int index = indices.length - 1; index >= 0; index--) {
+            int size = columns[index].size();
+            indices[index] = (int)(rank % size);
+            rank /= size;
+        }
+        return indices;
+    }
+
+    /**
+     * Computes the length of the text of the excuse with the specified indices.
+     * The length is that of the string that would be produced by {@link
+     * #appendExcuse(StringBuilder, int[])}.
+     *
+     * @param indices a valid selection of one index per column.
+     * @return the number of characters in the text of the selected excuse.
+     * @since 1.0.0.1
+     */
+    int getExcuseLength(int[] indices)
+    {
+        int length = 0;
+        for(int index = 0; index < indices.length; index++) {
+            if(!columns[index].isNull(indices[index])) {
+                length += columns[index].charLength(indices[index]);
+                if(index != indices.length - 1)
+                    length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Appends the text of the excuse with the specified indices to a buffer.
+     * The components are separated by a single space, exactly as done by
+     * {@link BOFHExcuse#toString()}: {@code null} components are skipped along
+     * with their separator.
+     *
+     * @param sb the buffer to append to.
+     * @param indices a valid selection of one index per column.
+     * @since 1.0.0.1
+     */
+    void appendExcuse(StringBuilder sb, int[] indices)
+    {
+        for(int index = 0; index < indices.length; index++) {
+            if(!columns[index].isNull(indices[index])) {
+                columns[index].appendTo(indices[index], sb);
+                if(index != indices.length - 1)
+                    sb.append(' ');
+            }
+        }
+    }
+
+    /**
+     * Computes the number of bytes in the UTF-8 encoding of the text of the
+     * excuse with the specified indices.
+     *
+     * @param indices a valid selection of one index per column.
+     * @return the encoded length of the text of the selected excuse.
+     * @since 1.0.0.8
+     */
+    int getExcuseByteLength(int[] indices)
+    {
+        int length = 0;
+        for(int index = 0; index < indices.length; index++) {
+            if(!columns[index].isNull(indices[index])) {
+                length += columns[index].byteLength(indices[index]);
+                if(index != indices.length - 1)
+                    length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Computes an upper bound on the number of bytes in the UTF-8 encoding of
+     * the text of any excuse in this model. The bound is the sum of the
+     * longest phrase in each column and the separators between them.
+     *
+     * @return the maximum encoded length of the text of an excuse.
+     * @since 1.0.0.11
+     */
+    int getMaxExcuseByteLength()
+    {
+        int length = Math.max(columns.length - 1, 0);
+        for(BOFHPhraseColumn column : columns) {
+            int max = 0;
+            for(int index = 0; index < column.size(); index++) {
+                if(!column.isNull(index))
+                    max = Math.max(max, column.byteLength(index));
+            }
+            length += max;
+        }
+        return length;
+    }
+
+    /**
+     * Copies the UTF-8 encoding of the text of the excuse with the specified
+     * indices into a buffer. The components are copied directly from the
+     * columns, with the same spacing as {@link BOFHExcuse#toString()}.
+     *
+     * @param out the buffer to write to. It must have at least {@link
+     * #getExcuseByteLength(int[])} bytes remaining.
+     * @param indices a valid selection of one index per column.
+     * @since 1.0.0.8
+     */
+    void putExcuse(ByteBuffer out, int[] indices)
+    {
+        for(int index = 0; index < indices.length; index++) {
+            if(!columns[index].isNull(indices[index])) {
+                columns[index].putTo(indices[index], out);
+                if(index != indices.length - 1)
+                    out.put((byte)' ');
+            }
+        }
+    }
+
+    /**
+     * Appends the text of the excuse with the specified indices to an
+     * arbitrary destination. The components are separated by a single space,
+     * exactly as done by {@link BOFHExcuse#toString()}: {@code null}
+     * components are skipped along with their separator.
+     *
+     * @param out the destination to append to.
+     * @param indices a valid selection of one index per column.
+     * @throws IOException if the destination throws an exception.
+     * @since 1.0.0.2
+     */
+    private void appendExcuse(Appendable out, int[] indices) throws IOException
+    {
+        for(int index = 0; index < indices.length; index++) {
+            if(!columns[index].isNull(indices[index])) {
+                columns[index].appendTo(indices[index], out);
+                if(index != indices.length - 1)
+                    out.append(' ');
+            }
+        }
+    }
+
+    /**
+     * Loads excuse files from the file system. Each file in the array
+     * represents a column of the model. The files are parsed with the same
+     * rules as {@link #loadFiles(String[])}, but they are memory-mapped and
+     * parsed in parallel. This method is package-private so that it can be
+     * benchmarked separately from the construction of the model.
+     *
+     * @param excuseFiles an array of paths, each one of which is to be used
+     * to initialize the corresponding column of the model.
+     * @param charset the character set of the files.
+     * @return an array of columns, one per file.
+     * @throws IOException if any of the files could not be found, opened or
+     * read.
+     * @since 1.0.0.7
+     */
+    static BOFHPhraseColumn[] loadPaths(Path[] excuseFiles, Charset charset) throws IOException
+    {
+        return BOFHColumnReader.readPaths(excuseFiles, charset);
+    }
+
     /**
      * Loads excuse files line-by-line. Each file in the array represents a
      * column of the model. Lines are trimmed of surrounding whitespace before
      * any further processing. If a trimmed line is empty or starts with the
      * sequence specified by {@link #COMMENT_PREFIX}, it is ignored. This method
      * searches for files and resources using the default system class loader.
+     * The files are read and parsed in parallel. This method is
+     * package-private so that it can be benchmarked separately from the
+     * construction of the model.
      *
      * @param excuseFiles an array of file names, each one of which is to be
      * used to initialize the corresponding column of the model. Files may
      * actually be named resources anywhere on the system classloader's path.
-     * @return an array of string arrays. Each sub-array represents a column of
-     * the model. Each string elements represents a line from one of the loaded
-     * files.
+     * @return an array of columns, one per file. Each element of a column
+     * represents a line from one of the loaded files.
      * @throws IOException if any of the files could not be found, opened or
+     * read.
      * @see ClassLoader#getSystemClassLoader()
      * @since 1.0.0.0
      */
-    private static String[][] loadFiles(String[] excuseFiles) throws IOException
+    static BOFHPhraseColumn[] loadFiles(String[] excuseFiles) throws IOException
     {
-        String[][] columnArray = new String[excuseFiles.length][];
-        for(int index = 0; index < excuseFiles.length; index++) {
+        List<Callable<BOFHPhraseColumn>> tasks = new ArrayList<>(excuseFiles.length);
+        for(final String file : excuseFiles) {
+            tasks.add(new Callable<BOFHPhraseColumn>() {
+                @Override public BOFHPhraseColumn call() throws IOException {
+                    return loadFile(file);
+                }
+            });
+        }
+        return BOFHColumnReader.invokeAll(tasks);
+    }
 
-            String file = excuseFiles[index];
+    /**
+     * Loads a single excuse file line-by-line, as described in {@link
+     * #loadFiles(String[])}.
+     *
+     * @param file the name of the file or resource to load.
+     * @return the column represented by the file.
+     * @throws IOException if the file could not be found, opened or read.
+     * @since 1.0.0.17
+     */
+    private static BOFHPhraseColumn loadFile(String file) throws IOException
+    {
+        long start = System.nanoTime();
+
+        InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(file);
+        if(stream == null)
+            throw new FileNotFoundException(file);
+
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        try (InputStream input = stream) {
+            byte[] buffer = new byte[8192];
+            int count;
+            while((count = input.read(buffer)) != -1)
+                contents.write(buffer, 0, count);
+        }
+
+        BOFHPhraseColumn column = BOFHColumnReader.readLines(
+                ByteBuffer.wrap(contents.toByteArray()), Charset.defaultCharset());
+        BOFHMetrics.recordLoad(file, System.nanoTime() - start);
+        return column;
+    }
+
+    /**
+     * Loads the columns of the default model. The precompiled binary model is
+     * used if it is available, and the default text files otherwise.
+     *
+     * @return the columns of the default model.
+     * @throws IOException if the default model could not be found, opened or
+     * read.
+     * @since 1.0.0.9
+     */
+    private static BOFHPhraseColumn[] loadDefault() throws IOException
+    {
+        InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(BOFHModelFormat.DEFAULT_RESOURCE);
+        if(stream == null)
+            return loadFiles(DEFAULT_FILES);
+        long start = System.nanoTime();
+        try(InputStream input = stream) {
+            return BOFHModelFormat.read(input);
+        } finally {
+            BOFHMetrics.recordLoad(BOFHModelFormat.DEFAULT_RESOURCE, System.nanoTime() - start);
+        }
+    }
 
-            InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(file);
-            if(stream == null)
-                throw new FileNotFoundException(file);
+    /**
+     * Converts arrays of excuse words into compact columns.
+     *
+     * @param excuseArrays arrays of excuse words, one per column.
+     * @param weightArrays the weights of the words, one array or {@code null}
+     * per column. If this array is {@code null}, no column is weighted.
+     * @return an array of columns containing the same words.
+     * @since 1.0.0.8
+     */
+    private static BOFHPhraseColumn[] toColumns(String[][] excuseArrays, double[][] weightArrays)
+    {
+        if(weightArrays != null && weightArrays.length != excuseArrays.length)
+            throw new IllegalArgumentException("Expected " + excuseArrays.length + " weight arrays, got " + weightArrays.length);
+        BOFHPhraseColumn[] columns = new BOFHPhraseColumn[excuseArrays.length];
+        for(int index = 0; index < excuseArrays.length; index++)
+            columns[index] = BOFHPhraseColumn.of(excuseArrays[index],
+                    (weightArrays == null) ? null : weightArrays[index]);
+        return columns;
+    }
 
-            List<String> excuses = new ArrayList<>();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
-                String line;
+    /**
+     * A spliterator over a contiguous range of the sequence of all excuses of
+     * a model. Splitting divides the range in half, so the parts are always
+     * of known and nearly equal size.
+     *
+     * @see #excuseStream()
+     * @since 1.0.0.4
+     */
+    private static final class ExcuseSpliterator implements Spliterator<BOFHExcuse>
+    {
+        private final BOFHExcuseModel model;
+        private long index;
+        private final long fence;
 
-                while((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if(!line.isEmpty() && !line.startsWith(COMMENT_PREFIX))
-                        excuses.add(line);
+        public ExcuseSpliterator(BOFHExcuseModel model, long origin, long fence)
+        {
+            this.model = model;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super BOFHExcuse> action)
+        {
+            if(index >= fence)
+                return false;
+            int[] indices = model.decodeRank(index++, new int[model.getColumnCount()]);
+            action.accept(new BOFHExcuse(model, indices));
+            return true;
+        }
+
+        /**
+         * Processes the remaining excuses by incrementing the indices of the
+         * previous excuse like an odometer, instead of decoding the position
+         * of each excuse from scratch.
+         */
+        @Override public void forEachRemaining(Consumer<? super BOFHExcuse> action)
+        {
+            if(index >= fence)
+                return;
+            int[] indices = model.decodeRank(index, new int[model.getColumnCount()]);
+            long remaining = fence - index;
+            index = fence;
+            while(true) {
+                action.accept(new BOFHExcuse(model, indices.clone()));
+                if(--remaining == 0L)
+                    break;
+                for(int column = indices.length - 1; column >= 0; column--) {
+                    if(++indices[column] < model.columns[column].size())
+                        break;
+                    indices[column] = 0;
                 }
             }
+        }
 
-            columnArray[index] = excuses.toArray(new String[excuses.size()]);
+        @Override public Spliterator<BOFHExcuse> trySplit()
+        {
+            long origin = index;
+            long middle = (origin + fence) >>> 1;
+            if(middle <= origin)
+                return null;
+            index = middle;
+            return new ExcuseSpliterator(model, origin, middle);
         }
 
-        return columnArray;
+        @Override public long estimateSize()
+        {
+            return fence - index;
+        }
+
+        @Override public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * A spliterator over a fixed number of random excuses. Splitting divides
+     * the count in half and gives the new part a generator split from the
+     * generator of this part.
+     *
+     * @see #randomExcuseStream(long, BOFHSplittableRandom)
+     * @since 1.0.0.4
+     */
+    private static final class RandomExcuseSpliterator implements Spliterator<BOFHExcuse>
+    {
+        private final BOFHExcuseModel model;
+        private final BOFHSplittableRandom random;
+        private long index;
+        private final long fence;
+
+        public RandomExcuseSpliterator(BOFHExcuseModel model, BOFHSplittableRandom random, long origin, long fence)
+        {
+            this.model = model;
+            this.random = random;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super BOFHExcuse> action)
+        {
+            if(index >= fence)
+                return false;
+            index++;
+            action.accept(model.getRandomExcuse(random));
+            return true;
+        }
+
+        @Override public void forEachRemaining(Consumer<? super BOFHExcuse> action)
+        {
+            long remaining = fence - index;
+            index = fence;
+            for(; remaining > 0L; remaining--)
+                action.accept(model.getRandomExcuse(random));
+        }
+
+        @Override public Spliterator<BOFHExcuse> trySplit()
+        {
+            long origin = index;
+            long middle = (origin + fence) >>> 1;
+            if(middle <= origin)
+                return null;
+            index = middle;
+            return new RandomExcuseSpliterator(model, random.split(), origin, middle);
+        }
+
+        @Override public long estimateSize()
+        {
+            return fence - index;
+        }
+
+        @Override public int characteristics()
+        {
+            return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
     }
 }
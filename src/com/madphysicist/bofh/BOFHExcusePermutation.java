@@ -0,0 +1,301 @@
+/*
+ * BOFHExcusePermutation.java (Class: com.madphysicist.bofh.BOFHExcusePermutation)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the excuses of a model in a pseudo-random order without repeats.
+ * Every excuse of the model appears exactly once before any of them appears
+ * again. The order is a keyed permutation of the {@linkplain
+ * BOFHExcuseModel#size() ranks} of the model, computed by a Feistel network
+ * with cycle walking. No record is kept of the excuses that have been drawn,
+ * so the memory used by this class is constant and each draw takes constant
+ * expected time, regardless of the size of the model. Once every excuse has
+ * been drawn, the sequence continues with a new permutation derived from the
+ * same key.
+ * <p>
+ * The sequence can be divided among several independent generators by
+ * creating each one with the same model and key, and a different partition
+ * number. Generator {@code p} of {@code n} draws the elements at positions
+ * {@code p}, {@code p + n}, {@code p + 2n}, etc. of the shared sequence, so
+ * no two generators ever draw the same excuse within a single cycle, without
+ * any coordination between them.
+ * <p>
+ * This class is thread-safe. Concurrent draws from the same instance never
+ * return the same position of the sequence.
+ *
+ * @see BOFHExcuseModel#getExcusePermutation(long)
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+public class BOFHExcusePermutation implements Iterator<BOFHExcuse>
+{
+    /**
+     * The number of rounds in the Feistel network. Six rounds are enough for
+     * the order to appear random, even for small domains.
+     *
+     * @since 1.0.0.0
+     */
+    private static final int ROUNDS = 6;
+
+    /**
+     * The odd constant used to derive the round and cycle keys from the key
+     * of the permutation. This is the 64-bit golden ratio.
+     *
+     * @since 1.0.0.0
+     */
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The model whose excuses are generated.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * The number of excuses in the model. This is the length of each cycle of
+     * the sequence.
+     *
+     * @since 1.0.0.0
+     */
+    private final long size;
+
+    /**
+     * The key that determines the order of the permutation.
+     *
+     * @since 1.0.0.0
+     */
+    private final long key;
+
+    /**
+     * The number of bits in each half of the Feistel network's domain. The
+     * domain is the smallest power of four that is not less than the size of
+     * the model, so at most four steps of cycle walking are expected per draw.
+     *
+     * @since 1.0.0.0
+     */
+    private final int halfBits;
+
+    /**
+     * A mask with the lower {@link #halfBits} bits set.
+     *
+     * @since 1.0.0.0
+     */
+    private final long halfMask;
+
+    /**
+     * The partition of the sequence that is drawn by this generator.
+     *
+     * @since 1.0.0.0
+     */
+    private final int partition;
+
+    /**
+     * The number of generators that the sequence is divided between.
+     *
+     * @since 1.0.0.0
+     */
+    private final int partitionCount;
+
+    /**
+     * The number of excuses drawn so far by this generator.
+     *
+     * @since 1.0.0.0
+     */
+    private final AtomicLong counter;
+
+    /**
+     * Creates a generator that draws the entire sequence of excuses defined by
+     * the specified key.
+     *
+     * @param model the model whose excuses are to be generated.
+     * @param key the key that determines the order of the excuses.
+     * @throws ArithmeticException if the number of excuses in the model exceeds
+     * {@code Long.MAX_VALUE}.
+     * @since 1.0.0.0
+     */
+    public BOFHExcusePermutation(BOFHExcuseModel model, long key)
+    {
+        this(model, key, 0, 1);
+    }
+
+    /**
+     * Creates a generator that draws one partition of the sequence of excuses
+     * defined by the specified key. Generators created with the same model and
+     * key but different partitions draw disjoint sets of excuses in each cycle.
+     *
+     * @param model the model whose excuses are to be generated.
+     * @param key the key that determines the order of the excuses.
+     * @param partition the partition drawn by this generator, between zero
+     * (inclusive) and {@code partitionCount} (exclusive).
+     * @param partitionCount the number of partitions.
+     * @throws IllegalArgumentException if the partition is out of range.
+     * @throws ArithmeticException if the number of excuses in the model exceeds
+     * {@code Long.MAX_VALUE}.
+     * @since 1.0.0.0
+     */
+    public BOFHExcusePermutation(BOFHExcuseModel model, long key, int partition, int partitionCount)
+    {
+        if(partitionCount < 1 || partition < 0 || partition >= partitionCount)
+            throw new IllegalArgumentException("Partition " + partition + " of " + partitionCount);
+
+        this.model = model;
+        this.size = model.size();
+        this.key = key;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+        this.counter = new AtomicLong();
+
+        int bits = (size > 1L) ? 64 - Long.numberOfLeadingZeros(size - 1L) : 0;
+        this.halfBits = Math.max((bits + 1) / 2, 1);
+        this.halfMask = (halfBits == 32) ? 0xFFFFFFFFL : (1L << halfBits) - 1L;
+    }
+
+    /**
+     * Returns the model whose excuses are generated.
+     *
+     * @return the model of this generator.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return model;
+    }
+
+    /**
+     * Checks if there are any excuses to generate. The sequence never ends,
+     * so this method only returns {@code false} if the model has no excuses
+     * because one of its columns is empty.
+     *
+     * @return {@code true} unless the model is empty.
+     * @since 1.0.0.0
+     */
+    @Override public boolean hasNext()
+    {
+        return size > 0L;
+    }
+
+    /**
+     * Draws the next excuse of this generator's partition of the sequence.
+     *
+     * @return the next excuse.
+     * @throws NoSuchElementException if the model is empty.
+     * @since 1.0.0.0
+     */
+    @Override public BOFHExcuse next()
+    {
+        return model.getExcuse(nextRank());
+    }
+
+    /**
+     * Draws the rank of the next excuse of this generator's partition of the
+     * sequence. This method does not allocate any objects.
+     *
+     * @return the rank of the next excuse.
+     * @throws NoSuchElementException if the model is empty.
+     * @since 1.0.0.0
+     */
+    public long nextRank()
+    {
+        if(size == 0L)
+            throw new NoSuchElementException();
+        long draw = counter.getAndIncrement();
+        return rankAt(draw * partitionCount + partition);
+    }
+
+    /**
+     * Computes the rank of the excuse at the specified position of the shared
+     * sequence. Positions zero to {@code size - 1} make up the first cycle, in
+     * which each rank appears exactly once. Subsequent cycles use a different
+     * permutation. This method allows any position to be accessed directly.
+     *
+     * @param position the position in the sequence.
+     * @return the rank of the excuse at the specified position.
+     * @throws IllegalArgumentException if the position is negative.
+     * @throws NoSuchElementException if the model is empty.
+     * @since 1.0.0.0
+     */
+    public long rankAt(long position)
+    {
+        if(position < 0L)
+            throw new IllegalArgumentException("Negative position: " + position);
+        if(size == 0L)
+            throw new NoSuchElementException();
+
+        long cycleKey = mix(key + (position / size) * GOLDEN_GAMMA);
+        long value = position % size;
+
+        // cycle walking: the permutation of a power of four is reapplied
+        // until it lands within the size of the model
+        do {
+            value = encrypt(value, cycleKey);
+        } while(Long.compareUnsigned(value, size) >= 0);
+        return value;
+    }
+
+    /**
+     * Applies the Feistel network to a value within the domain of the
+     * network.
+     *
+     * @param value the value to permute.
+     * @param cycleKey the key of the current cycle.
+     * @return the permuted value.
+     * @since 1.0.0.0
+     */
+    private long encrypt(long value, long cycleKey)
+    {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for(int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ (cycleKey + round * GOLDEN_GAMMA)) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Scrambles the bits of a 64-bit value. This is the finalizer of the
+     * SplitMix64 generator.
+     *
+     * @param z the value to scramble.
+     * @return the scrambled value.
+     * @since 1.0.0.0
+     */
+    static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
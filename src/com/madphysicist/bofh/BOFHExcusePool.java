@@ -0,0 +1,300 @@
+/*
+ * BOFHExcusePool.java (Class: com.madphysicist.bofh.BOFHExcusePool)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-generates random excuses in the background for callers that can not
+ * afford to wait for one to be generated. A single producer thread fills a
+ * bounded ring buffer with excuses whose text has already been rendered, and
+ * any number of consumers take them out without locking.
+ * <p>
+ * When the buffer is full, the producer parks until consumers drain it down to
+ * the low-water mark. This bounds both the memory used by the pool and the
+ * processor time spent on excuses that nobody asks for. When the buffer is
+ * empty, {@link #take()} generates an excuse inline instead of waiting, so a
+ * burst of requests never blocks on the producer.
+ * <p>
+ * The producer thread is a daemon, but the pool should still be {@linkplain
+ * #close() closed} when it is no longer needed.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+public class BOFHExcusePool implements Closeable
+{
+    /**
+     * The default capacity of the buffer. The value of this constant is
+     * {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The model that excuses are generated from.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * The slots of the ring buffer. The length is a power of two, so that
+     * sequence numbers can be mapped to slots with a mask.
+     *
+     * @since 1.0.0.0
+     */
+    private final AtomicReferenceArray<BOFHExcuse> slots;
+
+    /**
+     * The mask that maps a sequence number to a slot.
+     *
+     * @since 1.0.0.0
+     */
+    private final int mask;
+
+    /**
+     * The number of buffered excuses at or below which a parked producer
+     * resumes.
+     *
+     * @since 1.0.0.0
+     */
+    private final int lowWaterMark;
+
+    /**
+     * The sequence number of the next excuse to be taken. Consumers claim an
+     * excuse by advancing this counter.
+     *
+     * @since 1.0.0.0
+     */
+    private final AtomicLong head;
+
+    /**
+     * The sequence number of the next excuse to be produced. Only the producer
+     * advances this counter, which publishes the excuse in the corresponding
+     * slot.
+     *
+     * @since 1.0.0.0
+     */
+    private final AtomicLong tail;
+
+    /**
+     * The thread that fills the buffer.
+     *
+     * @since 1.0.0.0
+     */
+    private final Thread producer;
+
+    /**
+     * Whether the producer is parked, or about to park, waiting for the buffer
+     * to drain.
+     *
+     * @since 1.0.0.0
+     */
+    private volatile boolean waiting;
+
+    /**
+     * Whether the pool has been closed.
+     *
+     * @since 1.0.0.0
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool with the {@linkplain #DEFAULT_CAPACITY default capacity}
+     * and a low-water mark of half the capacity.
+     *
+     * @param model the model to generate excuses from.
+     * @since 1.0.0.0
+     */
+    public BOFHExcusePool(BOFHExcuseModel model)
+    {
+        this(model, DEFAULT_CAPACITY, DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Creates a pool and starts filling it. The capacity is rounded up to the
+     * next power of two.
+     *
+     * @param model the model to generate excuses from.
+     * @param capacity the maximum number of excuses to buffer.
+     * @param lowWaterMark the number of buffered excuses at or below which the
+     * producer resumes after the buffer fills up. Must be less than the
+     * capacity.
+     * @throws IllegalArgumentException if the capacity is not positive or too
+     * large, or the low-water mark is not between zero and the capacity.
+     * @since 1.0.0.0
+     */
+    public BOFHExcusePool(BOFHExcuseModel model, int capacity, int lowWaterMark)
+    {
+        if(capacity <= 0 || capacity > (1 << 30))
+            throw new IllegalArgumentException("Capacity: " + capacity);
+        if(lowWaterMark < 0 || lowWaterMark >= capacity)
+            throw new IllegalArgumentException("Low-water mark: " + lowWaterMark);
+
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity)
+            size <<= 1;
+
+        this.model = model;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.lowWaterMark = lowWaterMark;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+
+        this.producer = new Thread(new Runnable() {
+            @Override public void run() {
+                produce();
+            }
+        }, "BOFH Excuse Pool");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Returns the model that excuses are generated from.
+     *
+     * @return the model of this pool.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return model;
+    }
+
+    /**
+     * Returns the number of slots in the buffer. This is the requested
+     * capacity rounded up to a power of two.
+     *
+     * @return the capacity of the buffer.
+     * @since 1.0.0.0
+     */
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of excuses currently buffered. The result is only an
+     * estimate while excuses are being produced or taken.
+     *
+     * @return the number of buffered excuses.
+     * @since 1.0.0.0
+     */
+    public int size()
+    {
+        long size = tail.get() - head.get();
+        return (size < 0L) ? 0 : (int)size;
+    }
+
+    /**
+     * Takes a random excuse from the buffer. The text of a buffered excuse has
+     * already been rendered, so its {@link BOFHExcuse#toString()} method
+     * returns immediately. If the buffer is empty or the pool is closed, a new
+     * excuse is generated on the calling thread instead.
+     *
+     * @return a random excuse.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuse take()
+    {
+        BOFHExcuse excuse = poll();
+        return (excuse == null) ? model.getRandomExcuse() : excuse;
+    }
+
+    /**
+     * Takes a random excuse from the buffer if one is available.
+     *
+     * @return a pre-generated excuse, or {@code null} if the buffer is empty.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuse poll()
+    {
+        while(true) {
+            long sequence = head.get();
+            long available = tail.get() - sequence;
+            if(available <= 0L)
+                return null;
+
+            // The slot can not be overwritten while the head is unchanged, so
+            // a successful claim guarantees that the excuse read is current.
+            BOFHExcuse excuse = slots.get((int)sequence & mask);
+            if(head.compareAndSet(sequence, sequence + 1L)) {
+                if(available - 1L <= lowWaterMark && waiting)
+                    LockSupport.unpark(producer);
+                return excuse;
+            }
+        }
+    }
+
+    /**
+     * Stops the producer. Subsequent calls to {@link #take()} generate excuses
+     * inline once the buffer has been drained.
+     *
+     * @since 1.0.0.0
+     */
+    @Override public void close()
+    {
+        closed = true;
+        LockSupport.unpark(producer);
+    }
+
+    /**
+     * The body of the producer thread. Excuses are rendered before they are
+     * published, so consumers never render text themselves.
+     *
+     * @since 1.0.0.0
+     */
+    private void produce()
+    {
+        int capacity = mask + 1;
+        while(!closed) {
+            long sequence = tail.get();
+            if(sequence - head.get() >= capacity) {
+                // Advertise the wait before checking again, so that a consumer
+                // that drains the buffer in between always sees the flag.
+                waiting = true;
+                while(!closed && sequence - head.get() > lowWaterMark)
+                    LockSupport.park(this);
+                waiting = false;
+                continue;
+            }
+
+            BOFHExcuse excuse = model.getRandomExcuse();
+            excuse.toString();
+            slots.set((int)sequence & mask, excuse);
+            tail.lazySet(sequence + 1L);
+        }
+    }
+}
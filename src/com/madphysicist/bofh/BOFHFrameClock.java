@@ -0,0 +1,263 @@
+/*
+ * BOFHFrameClock.java (Class: com.madphysicist.bofh.BOFHFrameClock)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.Timer;
+
+/**
+ * A repaint manager that paints attached components at a fixed frame rate.
+ * When many {@link BOFHExcuseGenerator}s are shown at once, each of their
+ * spinners requests repaints as it animates. Without coordination, every one
+ * of those requests may end up as a separate paint on the event dispatch
+ * thread. This class instead collects the dirty regions of all the components
+ * inside the attached containers, merging the regions of each component, and
+ * releases them once per frame from a single timer. All the spinners that
+ * changed during a frame are then painted together, so the painting load on
+ * the event dispatch thread grows with the frame rate rather than with the
+ * number of spinners.
+ * <p>
+ * Repaints of components outside the attached containers are passed through
+ * immediately. The timer only runs while there are regions waiting to be
+ * painted, so an idle display costs nothing.
+ * <p>
+ * The animation steps themselves are still scheduled by each {@link
+ * com.madphysicist.tools.swing.CasinoSpinner}, which does not expose a way to
+ * drive them externally. Only the painting is coordinated.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Exposed frames to tests.
+ * @since 1.0.0.0
+ */
+public class BOFHFrameClock extends RepaintManager
+{
+    /**
+     * The frame rate used by {@link #install()}. The value of this constant
+     * is {@value} frames per second.
+     *
+     * @since 1.0.0.0
+     */
+    public static final int DEFAULT_FRAME_RATE = 60;
+
+    /**
+     * The containers whose components are painted once per frame.
+     *
+     * @since 1.0.0.0
+     */
+    private final Set<Component> roots;
+
+    /**
+     * The merged dirty region of each component that is waiting for the next
+     * frame. Access is synchronized on the map itself, since repaints may be
+     * requested from any thread.
+     *
+     * @since 1.0.0.0
+     */
+    private final Map<JComponent, Rectangle> pending;
+
+    /**
+     * The timer that releases the pending regions once per frame.
+     *
+     * @since 1.0.0.0
+     */
+    private final Timer timer;
+
+    /**
+     * Creates a clock with the specified frame rate. The clock does not take
+     * effect until it is made the {@linkplain
+     * RepaintManager#setCurrentManager(RepaintManager) current repaint
+     * manager}, and containers are attached to it.
+     *
+     * @param frameRate the number of frames per second.
+     * @throws IllegalArgumentException if the frame rate is not positive.
+     * @since 1.0.0.0
+     */
+    public BOFHFrameClock(int frameRate)
+    {
+        if(frameRate <= 0)
+            throw new IllegalArgumentException("Frame rate: " + frameRate);
+        this.roots = new CopyOnWriteArraySet<>();
+        this.pending = new IdentityHashMap<>();
+        this.timer = new Timer(Math.max(1, 1000 / frameRate), new ActionListener() {
+            @Override public void actionPerformed(ActionEvent e) {
+                flush();
+            }
+        });
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Creates a clock with the {@linkplain #DEFAULT_FRAME_RATE default frame
+     * rate} and makes it the current repaint manager.
+     *
+     * @return the installed clock.
+     * @since 1.0.0.0
+     */
+    public static BOFHFrameClock install()
+    {
+        return install(DEFAULT_FRAME_RATE);
+    }
+
+    /**
+     * Creates a clock with the specified frame rate and makes it the current
+     * repaint manager.
+     *
+     * @param frameRate the number of frames per second.
+     * @return the installed clock.
+     * @throws IllegalArgumentException if the frame rate is not positive.
+     * @since 1.0.0.0
+     */
+    public static BOFHFrameClock install(int frameRate)
+    {
+        BOFHFrameClock clock = new BOFHFrameClock(frameRate);
+        RepaintManager.setCurrentManager(clock);
+        return clock;
+    }
+
+    /**
+     * Paints all the components inside the specified container once per
+     * frame.
+     *
+     * @param root the container to attach.
+     * @since 1.0.0.0
+     */
+    public void attach(Component root)
+    {
+        roots.add(root);
+    }
+
+    /**
+     * Stops coordinating the painting of the specified container. Regions
+     * that are already waiting are still painted with the next frame.
+     *
+     * @param root the container to detach.
+     * @since 1.0.0.0
+     */
+    public void detach(Component root)
+    {
+        roots.remove(root);
+    }
+
+    /**
+     * Records a region of a component that needs to be repainted. If the
+     * component is inside an attached container, the region is merged with
+     * any other pending region of the component, and painted with the next
+     * frame. Otherwise, it is passed through immediately.
+     *
+     * @param c the component to repaint.
+     * @param x the left edge of the region.
+     * @param y the top edge of the region.
+     * @param w the width of the region.
+     * @param h the height of the region.
+     * @since 1.0.0.0
+     */
+    @Override public void addDirtyRegion(JComponent c, int x, int y, int w, int h)
+    {
+        if(w <= 0 || h <= 0 || !isAttached(c)) {
+            release(c, new Rectangle(x, y, w, h));
+            return;
+        }
+
+        boolean start;
+        synchronized(pending) {
+            start = pending.isEmpty();
+            Rectangle region = pending.get(c);
+            if(region == null)
+                pending.put(c, new Rectangle(x, y, w, h));
+            else
+                region.add(new Rectangle(x, y, w, h));
+        }
+        if(start)
+            timer.start();
+    }
+
+    /**
+     * Checks if a component is inside one of the attached containers.
+     *
+     * @param c the component to check.
+     * @return {@code true} if the component or one of its ancestors is
+     * attached.
+     * @since 1.0.0.0
+     */
+    private boolean isAttached(Component c)
+    {
+        if(roots.isEmpty())
+            return false;
+        for(Component parent = c; parent != null; parent = parent.getParent())
+            if(roots.contains(parent))
+                return true;
+        return false;
+    }
+
+    /**
+     * Releases the pending regions to be painted together. The timer is
+     * stopped if there was nothing to paint during the last frame. This method
+     * is invoked by the timer once per frame, and is package-private so that
+     * frames can be triggered by tests.
+     *
+     * @since 1.0.0.0
+     */
+    void flush()
+    {
+        Map<JComponent, Rectangle> regions;
+        synchronized(pending) {
+            if(pending.isEmpty()) {
+                timer.stop();
+                return;
+            }
+            regions = new IdentityHashMap<>(pending);
+            pending.clear();
+        }
+        for(Map.Entry<JComponent, Rectangle> entry : regions.entrySet())
+            release(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Passes a dirty region on to be painted by the standard repaint manager.
+     * This method is package-private so that tests can observe the regions
+     * that are released.
+     *
+     * @param c the component to repaint.
+     * @param region the region of the component to repaint.
+     * @since 1.0.0.1
+     */
+    void release(JComponent c, Rectangle region)
+    {
+        super.addDirtyRegion(c, region.x, region.y, region.width, region.height);
+    }
+}
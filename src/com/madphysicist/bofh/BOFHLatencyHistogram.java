@@ -0,0 +1,182 @@
+/*
+ * BOFHLatencyHistogram.java (Class: com.madphysicist.bofh.BOFHLatencyHistogram)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies with fixed, exponentially sized buckets.
+ * Bucket {@code i} counts the latencies whose highest set bit is bit {@code
+ * i - 1}, so bucket zero holds latencies of zero nanoseconds, and every other
+ * bucket spans a factor of two. Latencies beyond the last bucket are counted
+ * in the last bucket.
+ * <p>
+ * Recording a latency only increments two striped counters, so it does not
+ * allocate once the counters have adapted to the contention on them, and
+ * threads recording at the same time rarely contend. Reading the histogram is
+ * not atomic with respect to concurrent recording, which is acceptable for
+ * monitoring.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+final class BOFHLatencyHistogram
+{
+    /**
+     * The number of buckets in every histogram. The last bucket starts at
+     * about 275 seconds. The value of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    static final int BUCKET_COUNT = 40;
+
+    /**
+     * The number of latencies recorded in each bucket.
+     *
+     * @since 1.0.0.0
+     */
+    private final LongAdder[] buckets;
+
+    /**
+     * The sum of all the recorded latencies, in nanoseconds.
+     *
+     * @since 1.0.0.0
+     */
+    private final LongAdder total;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @since 1.0.0.0
+     */
+    BOFHLatencyHistogram()
+    {
+        this.buckets = new LongAdder[BUCKET_COUNT];
+        for(int index = 0; index < BUCKET_COUNT; index++)
+            buckets[index] = new LongAdder();
+        this.total = new LongAdder();
+    }
+
+    /**
+     * Records a single latency. Negative latencies, which can only come from
+     * a misbehaving clock, are counted as zero.
+     *
+     * @param nanos the latency in nanoseconds.
+     * @since 1.0.0.0
+     */
+    void record(long nanos)
+    {
+        if(nanos < 0L)
+            nanos = 0L;
+        buckets[Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1)].increment();
+        total.add(nanos);
+    }
+
+    /**
+     * Returns the number of latencies in each bucket.
+     *
+     * @return an array of {@link #BUCKET_COUNT} counts.
+     * @since 1.0.0.0
+     */
+    long[] getCounts()
+    {
+        long[] counts = new long[BUCKET_COUNT];
+        for(int index = 0; index < BUCKET_COUNT; index++)
+            counts[index] = buckets[index].sum();
+        return counts;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the sum of all the buckets.
+     * @since 1.0.0.0
+     */
+    long getCount()
+    {
+        long count = 0L;
+        for(LongAdder bucket : buckets)
+            count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean latency in nanoseconds, or zero if nothing was
+     * recorded.
+     * @since 1.0.0.0
+     */
+    double getMean()
+    {
+        long count = getCount();
+        return (count == 0L) ? 0.0 : (double)total.sum() / count;
+    }
+
+    /**
+     * Returns an upper bound on a quantile of the recorded latencies. The
+     * bound is the exclusive upper end of the bucket that contains the
+     * quantile, so it is at most twice the true value.
+     *
+     * @param quantile the quantile, between zero and one.
+     * @return the upper bound in nanoseconds, or zero if nothing was
+     * recorded.
+     * @since 1.0.0.0
+     */
+    long getQuantile(double quantile)
+    {
+        long[] counts = getCounts();
+        long count = 0L;
+        for(long bucket : counts)
+            count += bucket;
+        if(count == 0L)
+            return 0L;
+
+        long rank = (long)Math.ceil(quantile * count);
+        long seen = 0L;
+        for(int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts[index];
+            if(seen >= rank && counts[index] > 0L)
+                return 1L << index;
+        }
+        return 1L << (BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Clears all the buckets.
+     *
+     * @since 1.0.0.0
+     */
+    void reset()
+    {
+        for(LongAdder bucket : buckets)
+            bucket.reset();
+        total.reset();
+    }
+}
@@ -27,11 +27,29 @@
  */
 package com.madphysicist.bofh;
 
+import java.awt.EventQueue;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.FileDescriptor;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import javax.management.JMException;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineListener;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.BoxLayout;
@@ -43,8 +61,6 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.WindowConstants;
-import com.madphysicist.tools.util.AudioTools;
-import com.madphysicist.tools.util.ResourceUtilities;
 import com.madphysicist.tools.swing.CasinoSpinner;
 import com.madphysicist.tools.swing.SwingUtilities;
 
@@ -67,9 +83,22 @@ import com.madphysicist.tools.swing.SwingUtilities;
  * <li></li>
  * </ul>
  * </p>
+ * <p>
+ * When run with batch options, this class does not show any windows.
+ * Instead, it writes a batch of excuses to a file or to standard output, as
+ * described in {@link #main(String[])}.
+ * </p>
  *
  * @author Joseph Fox-Rabinovitz
  * @version 1.0.0.0 6 Apr, 2012
+ * @version 1.0.0.1, 16 Oct 2026 - Added a headless batch mode.
+ * @version 1.0.0.2, 16 Oct 2026 - Registered metrics.
+ * @version 1.0.0.3, 16 Oct 2026 - Preloaded the audio clip in memory.
+ * @version 1.0.0.4, 16 Oct 2026 - Built the frame while logging in.
+ * @version 1.0.0.5, 16 Oct 2026 - Required a batch option for batch mode.
+ * @version 1.0.0.6, 16 Oct 2026 - Painted the spinners with a frame clock.
+ * @version 1.0.0.7, 16 Oct 2026 - Built the frame on the event dispatch thread.
+ * @version 1.0.0.8, 16 Oct 2026 - Closed unplayed clips after they finish loading.
  * @since 1.0.0.0
  */
 public class BOFHMain
@@ -82,6 +111,15 @@ public class BOFHMain
      */
     private static final String CLICKETY_CLIP = "ClicketyClick.wav";
 
+    /**
+     * The system property that sets the frame rate at which the spinners are
+     * painted. A value of zero or less paints them without coordination. The
+     * default is {@link BOFHFrameClock#DEFAULT_FRAME_RATE}.
+     *
+     * @since 1.0.0.6
+     */
+    private static final String FRAME_RATE_PROPERTY = "bofh.frameRate";
+
     /**
      * A private constructor to prevent instantiation.
      * 
@@ -156,6 +194,142 @@ public class BOFHMain
         frame.setJMenuBar(menuBar);
     }
 
+    /**
+     * Creates the main frame of the application, with an excuse generator for
+     * the specified model. The frame is neither packed nor shown, so it does
+     * not become displayable until it is needed. This method must be invoked
+     * on the event dispatch thread.
+     *
+     * @param model the model to generate excuses from.
+     * @return the new frame.
+     * @since 1.0.0.4
+     */
+    private static JFrame createFrame(BOFHExcuseModel model)
+    {
+        JFrame frame = new JFrame(productString());
+        createJMenuBar(frame);
+        frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+
+        BOFHExcuseGenerator generator = new BOFHExcuseGenerator(model);
+        int frameRate = Integer.getInteger(FRAME_RATE_PROPERTY, BOFHFrameClock.DEFAULT_FRAME_RATE);
+        if(frameRate > 0)
+            generator.setFrameClock(BOFHFrameClock.install(frameRate));
+        frame.getContentPane().add(generator);
+        frame.getRootPane().setDefaultButton(generator.getBigButton());
+
+        //frame.setResizable(false);
+        return frame;
+    }
+
+    /**
+     * Starts creating the main frame while the user is logging in. The model
+     * is loaded on a background thread. Once it is ready, the components are
+     * built on the event dispatch thread, which keeps dispatching events while
+     * the modal login dialogs are up. The frame is ready to be shown as soon
+     * as the login succeeds.
+     *
+     * @return the frame, once it has been created.
+     * @see #createFrame(BOFHExcuseModel)
+     * @since 1.0.0.4
+     */
+    private static Future<JFrame> loadFrame()
+    {
+        final FutureTask<BOFHExcuseModel> model = new FutureTask<>(new Callable<BOFHExcuseModel>() {
+            @Override public BOFHExcuseModel call() throws IOException {
+                return new BOFHExcuseModel();
+            }
+        });
+        final FutureTask<JFrame> frame = new FutureTask<>(new Callable<JFrame>() {
+            @Override public JFrame call() throws InterruptedException, ExecutionException {
+                return createFrame(model.get());
+            }
+        });
+        Thread loader = new Thread(new Runnable() {
+            @Override public void run() {
+                model.run();
+                EventQueue.invokeLater(frame);
+            }
+        }, "BOFH Model Loader");
+        loader.setDaemon(true);
+        loader.start();
+        return frame;
+    }
+
+    /**
+     * Waits for the main frame to be created.
+     *
+     * @param frame the frame being created.
+     * @return the created frame.
+     * @throws IOException if the excuse configuration resources could not be
+     * loaded, or the wait was interrupted.
+     * @since 1.0.0.4
+     */
+    private static JFrame awaitFrame(Future<JFrame> frame) throws IOException
+    {
+        try {
+            return frame.get();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading the model", ie);
+        } catch(ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            // failures to load the model are wrapped twice
+            while(cause instanceof ExecutionException && cause.getCause() != null)
+                cause = cause.getCause();
+            if(cause instanceof IOException)
+                throw (IOException)cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if(cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Shows the main frame once it has been created. The frame is packed and
+     * shown on the event dispatch thread.
+     *
+     * @param frame the frame being created.
+     * @throws IOException if the excuse configuration resources could not be
+     * loaded, or the wait was interrupted.
+     * @since 1.0.0.7
+     */
+    private static void showFrame(Future<JFrame> frame) throws IOException
+    {
+        final JFrame loaded = awaitFrame(frame);
+        EventQueue.invokeLater(new Runnable() {
+            @Override public void run() {
+                loaded.pack();
+                loaded.setVisible(true);
+            }
+        });
+    }
+
+    /**
+     * Discards the main frame after a failed login. The frame is not created
+     * at all if it has not been started yet. Otherwise, it is disposed on the
+     * event dispatch thread once it is ready, so that it can not keep the
+     * application running.
+     *
+     * @param frame the frame being created.
+     * @since 1.0.0.7
+     */
+    private static void discardFrame(final Future<JFrame> frame)
+    {
+        if(frame.cancel(false))
+            return;
+        EventQueue.invokeLater(new Runnable() {
+            @Override public void run() {
+                try {
+                    frame.get().dispose();
+                } catch(InterruptedException | ExecutionException ex) {
+                    // there is no frame to dispose
+                }
+            }
+        });
+    }
+
     /**
      * Asks for the user name. If OK is pressed under any circumstance without
      * the correct user name, the user name or "all users" will be deleted from
@@ -164,11 +338,13 @@ public class BOFHMain
      * sequence of dialogs is by entering the correct user name. What is the
      * correct user name?
      *
+     * @param clip the "clickety click" clip, which is being loaded in the
+     * background while the dialogs are shown.
      * @return {@code true} if the user successfully circumvented the query,
      * {@code false} otherwise.
      * @since 1.0.0.0
      */
-    private static boolean askForUserName()
+    private static boolean askForUserName(Future<Clip> clip)
     {
         String output;
         do {
@@ -183,16 +359,12 @@ public class BOFHMain
                         "Informational Communication",
                         JOptionPane.WARNING_MESSAGE);
             } else if(output.equals("bofh")) {
+                closeClip(clip);
                 return true;
             }
         } while(output == null);
 
-        try {
-            AudioTools.playClip(ResourceUtilities.getResourceAsFile(CLICKETY_CLIP, true));
-        } catch(IOException | InterruptedException
-              | LineUnavailableException | UnsupportedAudioFileException ex) {
-            // Ignore any exception. If the audio clip can not be played, too bad.
-        }
+        playClip(clip);
 
         String userString = output.isEmpty() ? "All users have" : "User " + output.trim() + " has";
         JOptionPane.showMessageDialog(null,
@@ -201,14 +373,221 @@ public class BOFHMain
         return false;
     }
 
+    /**
+     * Starts loading an audio resource into a clip on a background thread.
+     * The resource is decoded straight from the class path into the memory
+     * of the clip, without being copied to a temporary file.
+     *
+     * @param name the name of the resource, relative to the root of the
+     * system class loader's path.
+     * @return the clip, once it has been loaded.
+     * @since 1.0.0.3
+     */
+    private static Future<Clip> loadClip(final String name)
+    {
+        FutureTask<Clip> task = new FutureTask<>(new Callable<Clip>() {
+            @Override public Clip call() throws Exception {
+                InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(name);
+                if(stream == null)
+                    throw new FileNotFoundException(name);
+                try(AudioInputStream audio = AudioSystem.getAudioInputStream(new BufferedInputStream(stream))) {
+                    Clip clip = AudioSystem.getClip();
+                    clip.open(audio);
+                    return clip;
+                }
+            }
+        });
+        Thread loader = new Thread(task, "BOFH Audio Loader");
+        loader.setDaemon(true);
+        loader.start();
+        return task;
+    }
+
+    /**
+     * Plays a clip without waiting for it to finish. The clip is closed once
+     * it stops. If the clip could not be loaded, nothing is played. The clip
+     * is normally loaded long before it is needed, so this method only waits
+     * if the loading is still in progress.
+     *
+     * @param clip the clip to play.
+     * @since 1.0.0.3
+     */
+    private static void playClip(Future<Clip> clip)
+    {
+        try {
+            final Clip loaded = clip.get();
+            loaded.addLineListener(new LineListener() {
+                @Override public void update(LineEvent event) {
+                    if(event.getType() == LineEvent.Type.STOP)
+                        loaded.close();
+                }
+            });
+            loaded.start();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException ee) {
+            // Ignore any exception. If the audio clip can not be played, too bad.
+        }
+    }
+
+    /**
+     * Releases a clip that will not be played. The load is not cancelled,
+     * since opening a clip can not be interrupted, and a clip that is opened
+     * after its task was cancelled would never be closed. Instead, this method
+     * waits for the clip to finish loading, and then closes it.
+     *
+     * @param clip the clip to release.
+     * @since 1.0.0.3
+     */
+    private static void closeClip(Future<Clip> clip)
+    {
+        try {
+            clip.get().close();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException ee) {
+            // The clip was never opened.
+        }
+    }
+
+    /**
+     * Checks if the command line selects batch mode. Batch mode is selected
+     * by any of the options recognized by {@link #writeBatch(String[])}, so
+     * that stray arguments, for example from a launcher script, still show
+     * the GUI.
+     *
+     * @param args the command line arguments.
+     * @return {@code true} if any of the arguments is a batch option.
+     * @since 1.0.0.5
+     */
+    private static boolean isBatch(String[] args)
+    {
+        for(String arg : args) {
+            switch(arg) {
+                case "--batch":
+                case "-n":
+                case "--count":
+                case "-s":
+                case "--seed":
+                case "-o":
+                case "--output":
+                case "-f":
+                case "--format":
+                case "-p":
+                case "--parallel":
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a batch of excuses without showing any windows. The output is
+     * written through a single file channel with a large buffer.
+     *
+     * @param args the command line options described in {@link
+     * #main(String[])}.
+     * @throws IOException if the excuse configuration resources can not be
+     * loaded or the output can not be written.
+     * @throws IllegalArgumentException if the options are not valid.
+     * @since 1.0.0.1
+     */
+    private static void writeBatch(String[] args) throws IOException
+    {
+        long count = 1L;
+        BOFHSplittableRandom random = new BOFHSplittableRandom();
+        String output = "-";
+        BOFHBatchWriter.Format format = BOFHBatchWriter.Format.PLAIN;
+        int threads = 1;
+
+        for(int index = 0; index < args.length; index++) {
+            String option = args[index];
+            if(option.equals("--batch"))
+                continue;
+            if(option.equals("-p") || option.equals("--parallel")) {
+                threads = Runtime.getRuntime().availableProcessors();
+                continue;
+            }
+            if(index == args.length - 1)
+                throw new IllegalArgumentException("Missing value for " + option);
+            String value = args[++index];
+            switch(option) {
+                case "-n":
+                case "--count":
+                    count = Long.parseLong(value);
+                    break;
+                case "-s":
+                case "--seed":
+                    random = new BOFHSplittableRandom(Long.parseLong(value));
+                    break;
+                case "-o":
+                case "--output":
+                    output = value;
+                    break;
+                case "-f":
+                case "--format":
+                    format = BOFHBatchWriter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if(count < 0L)
+            throw new IllegalArgumentException("Negative count " + count);
+
+        BOFHBatchWriter writer = new BOFHBatchWriter(new BOFHExcuseModel(), format);
+        if(output.equals("-")) {
+            try(FileOutputStream out = new FileOutputStream(FileDescriptor.out)) {
+                writer.write(out.getChannel(), count, random, threads);
+            }
+        } else {
+            try(FileChannel channel = FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writer.write(channel, count, random, threads);
+            }
+        }
+    }
+
     /**
      * The main method. This method is the only public access to this class.
-     * After asking the user to input his user name, a frame with an excuse
-     * generator is displayed. The frame contains a {@link BOFHExcuseGenerator}
-     * panel as well as tools to configure it.
+     * Without arguments, after asking the user to input his user name, a frame
+     * with an excuse generator is displayed. The frame contains a {@link
+     * BOFHExcuseGenerator} panel as well as tools to configure it. The frame
+     * is built, and the model loaded, while the user name is being entered.
+     * The spinners are painted together by a {@link BOFHFrameClock}, at the
+     * rate given by the {@code bofh.frameRate} system property.
+     * <p>
+     * If any of the batch options below is present, no windows are shown.
+     * Instead, a batch of random excuses is written, one per line. Other
+     * arguments are ignored unless batch mode is selected, in which case they
+     * are an error. The following options are recognized:
+     * <dl>
+     * <dt>{@code --batch}</dt>
+     * <dd>Selects batch mode with no other options.</dd>
+     * <dt>{@code -n}, {@code --count} <i>count</i></dt>
+     * <dd>The number of excuses to write. The default is one.</dd>
+     * <dt>{@code -s}, {@code --seed} <i>seed</i></dt>
+     * <dd>A seed that makes the output reproducible.</dd>
+     * <dt>{@code -o}, {@code --output} <i>file</i></dt>
+     * <dd>The file to write to. The default, {@code -}, is standard
+     * output.</dd>
+     * <dt>{@code -f}, {@code --format} {@code plain}|{@code json}|{@code
+     * csv}</dt>
+     * <dd>The format of each line. The default is {@code plain}.</dd>
+     * <dt>{@code -p}, {@code --parallel}</dt>
+     * <dd>Generate excuses on all available processors. The output for a
+     * given seed is the same either way.</dd>
+     * </dl>
+     * </p>
+     * <p>
+     * The {@linkplain BOFHMetrics metrics} are registered with the platform
+     * MBean server when the GUI is shown. Batch mode does not register them,
+     * so that short runs do not pay for timing every excuse.
+     * </p>
      *
-     * @param args input arguments which can be anything, as they will all be
-     * ignored.
+     * @param args the batch options, or no batch options to show the GUI.
      * @throws IOException if the excuse configuration resources can not be
      * loaded for any reason. The message or even the subtype of the exception
      * may be more informative.
@@ -216,18 +595,26 @@ public class BOFHMain
      */
     public static void main(String[] args) throws IOException
     {
-        if(askForUserName()) {
-            JFrame frame = new JFrame(productString());
-            createJMenuBar(frame);
-            frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-
-            BOFHExcuseGenerator generator = new BOFHExcuseGenerator();
-            frame.getContentPane().add(generator);
-            frame.getRootPane().setDefaultButton(generator.getBigButton());
-
-            frame.pack();
-            //frame.setResizable(false);
-            frame.setVisible(true);
+        if(isBatch(args)) {
+            try {
+                writeBatch(args);
+            } catch(IllegalArgumentException iae) {
+                System.err.println(iae.getMessage());
+                System.err.println("Usage: BOFHMain --batch [-n count] [-s seed] [-o file] [-f plain|json|csv] [-p]");
+                System.exit(2);
+            }
+        } else {
+            try {
+                BOFHMetrics.register();
+            } catch(JMException jme) {
+                System.err.println("Metrics unavailable: " + jme.getMessage());
+            }
+
+            Future<JFrame> frame = loadFrame();
+            if(askForUserName(loadClip(CLICKETY_CLIP)))
+                showFrame(frame);
+            else
+                discardFrame(frame);
         }
     }
 }
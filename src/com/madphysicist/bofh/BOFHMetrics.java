@@ -0,0 +1,419 @@
+/*
+ * BOFHMetrics.java (Class: com.madphysicist.bofh.BOFHMetrics)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects metrics about excuse generation, model loading and the GUI, and
+ * publishes them as a JMX MBean. There is a single instance of this class for
+ * the whole application. It is not visible to JMX clients until it is
+ * {@linkplain #register() registered}.
+ * <p>
+ * The metrics on the hot path, which are the generation counter and the
+ * latencies of {@link BOFHExcuseModel#getRandomExcuse(java.util.Random)} and
+ * {@link BOFHExcuse#toString()}, are only recorded while the MBean is
+ * registered. Until then, instrumented methods only read a single volatile
+ * flag. Once registered, recording uses striped {@link LongAdder} counters
+ * and {@linkplain BOFHLatencyHistogram fixed-bucket histograms}, which do not
+ * allocate and rarely contend. Load times, model sizes and spin counts are
+ * rare events, and are always recorded.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Recorded only loaded models.
+ * @since 1.0.0.0
+ */
+public final class BOFHMetrics implements BOFHMetricsMXBean
+{
+    /**
+     * The name under which the metrics are registered. The value of this
+     * constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    public static final String OBJECT_NAME = "com.madphysicist.bofh:type=BOFHMetrics";
+
+    /**
+     * The only instance of this class.
+     *
+     * @since 1.0.0.0
+     */
+    private static final BOFHMetrics INSTANCE = new BOFHMetrics();
+
+    /**
+     * Whether the hot path metrics are being recorded. This is set while the
+     * MBean is registered with at least one server.
+     *
+     * @since 1.0.0.0
+     */
+    private static volatile boolean recording;
+
+    /**
+     * The number of servers that the MBean is registered with.
+     *
+     * @since 1.0.0.0
+     */
+    private static int registrations;
+
+    /**
+     * The number of excuses generated since the last reset.
+     *
+     * @since 1.0.0.0
+     */
+    private final LongAdder generated = new LongAdder();
+
+    /**
+     * The latencies of generating random excuse objects.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHLatencyHistogram randomExcuse = new BOFHLatencyHistogram();
+
+    /**
+     * The latencies of rendering the text of excuses.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHLatencyHistogram toString = new BOFHLatencyHistogram();
+
+    /**
+     * The most recent load time of each file or resource.
+     *
+     * @since 1.0.0.0
+     */
+    private final Map<String, Long> loadNanos = new ConcurrentHashMap<>();
+
+    /**
+     * The number of spins of whole generators.
+     *
+     * @since 1.0.0.0
+     */
+    private final LongAdder generatorSpins = new LongAdder();
+
+    /**
+     * The number of spins of individual columns.
+     *
+     * @since 1.0.0.0
+     */
+    private final LongAdder columnSpins = new LongAdder();
+
+    /**
+     * The size of the latest model.
+     *
+     * @since 1.0.0.0
+     */
+    private volatile long modelSize;
+
+    /**
+     * The number of entries in the latest model.
+     *
+     * @since 1.0.0.0
+     */
+    private volatile long modelEntries;
+
+    /**
+     * The time of the last reset, as returned by {@link System#nanoTime()}.
+     *
+     * @since 1.0.0.0
+     */
+    private volatile long resetTime = System.nanoTime();
+
+    /**
+     * Prevents instantiation outside this class.
+     *
+     * @since 1.0.0.0
+     */
+    private BOFHMetrics() {}
+
+    /**
+     * Returns the metrics of the application.
+     *
+     * @return the only instance of this class.
+     * @since 1.0.0.0
+     */
+    public static BOFHMetrics getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under {@link
+     * #OBJECT_NAME}, and starts recording the hot path metrics.
+     *
+     * @return the name of the registered MBean.
+     * @throws JMException if the MBean could not be registered, for example
+     * because it already is.
+     * @since 1.0.0.0
+     */
+    public static ObjectName register() throws JMException
+    {
+        return register(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Registers the metrics with the specified MBean server under {@link
+     * #OBJECT_NAME}, and starts recording the hot path metrics.
+     *
+     * @param server the server to register with.
+     * @return the name of the registered MBean.
+     * @throws JMException if the MBean could not be registered, for example
+     * because it already is.
+     * @since 1.0.0.0
+     */
+    public static synchronized ObjectName register(MBeanServer server) throws JMException
+    {
+        ObjectName name = server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME)).getObjectName();
+        if(registrations++ == 0)
+            INSTANCE.reset();
+        recording = true;
+        return name;
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server.
+     *
+     * @throws JMException if the MBean is not registered.
+     * @since 1.0.0.0
+     */
+    public static void unregister() throws JMException
+    {
+        unregister(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Removes the metrics from the specified MBean server. The hot path
+     * metrics stop being recorded once the metrics are not registered with
+     * any server.
+     *
+     * @param server the server to remove the metrics from.
+     * @throws JMException if the MBean is not registered.
+     * @since 1.0.0.0
+     */
+    public static synchronized void unregister(MBeanServer server) throws JMException
+    {
+        server.unregisterMBean(new ObjectName(OBJECT_NAME));
+        if(--registrations == 0)
+            recording = false;
+    }
+
+    /**
+     * Checks if the hot path metrics are being recorded. Instrumented methods
+     * check this before reading the clock.
+     *
+     * @return {@code true} if the metrics are registered.
+     * @since 1.0.0.0
+     */
+    static boolean isRecording()
+    {
+        return recording;
+    }
+
+    /**
+     * Records the generation of a random excuse object.
+     *
+     * @param nanos the time taken to generate the excuse.
+     * @since 1.0.0.0
+     */
+    static void recordRandomExcuse(long nanos)
+    {
+        INSTANCE.generated.increment();
+        INSTANCE.randomExcuse.record(nanos);
+    }
+
+    /**
+     * Records the rendering of the text of an excuse.
+     *
+     * @param nanos the time taken to render the text.
+     * @since 1.0.0.0
+     */
+    static void recordToString(long nanos)
+    {
+        INSTANCE.toString.record(nanos);
+    }
+
+    /**
+     * Records excuses that were generated in bulk, without timing them
+     * individually.
+     *
+     * @param count the number of excuses generated.
+     * @since 1.0.0.0
+     */
+    static void recordGenerated(long count)
+    {
+        INSTANCE.generated.add(count);
+    }
+
+    /**
+     * Records the time taken to load a file or resource.
+     *
+     * @param name the name of the file or resource.
+     * @param nanos the time taken to load it.
+     * @since 1.0.0.0
+     */
+    static void recordLoad(String name, long nanos)
+    {
+        INSTANCE.loadNanos.put(name, nanos);
+    }
+
+    /**
+     * Records the size of a model that has just been loaded or published.
+     * Models derived from another model are not recorded.
+     *
+     * @param model the model.
+     * @since 1.0.0.0
+     */
+    static void recordModel(BOFHExcuseModel model)
+    {
+        long entries = 0L;
+        for(int index = 0; index < model.getColumnCount(); index++)
+            entries += model.getColumn(index).size();
+        long size;
+        try {
+            size = model.size();
+        } catch(ArithmeticException ae) {
+            size = -1L;
+        }
+        INSTANCE.modelEntries = entries;
+        INSTANCE.modelSize = size;
+    }
+
+    /**
+     * Records a spin of all the columns of a generator.
+     *
+     * @since 1.0.0.0
+     */
+    static void recordGeneratorSpin()
+    {
+        INSTANCE.generatorSpins.increment();
+    }
+
+    /**
+     * Records a spin of an individual column.
+     *
+     * @since 1.0.0.0
+     */
+    static void recordColumnSpin()
+    {
+        INSTANCE.columnSpins.increment();
+    }
+
+    @Override public long getExcusesGenerated()
+    {
+        return generated.sum();
+    }
+
+    @Override public double getExcusesPerSecond()
+    {
+        long elapsed = System.nanoTime() - resetTime;
+        return (elapsed <= 0L) ? 0.0 : generated.sum() * 1e9 / elapsed;
+    }
+
+    @Override public long getRandomExcuseCount()
+    {
+        return randomExcuse.getCount();
+    }
+
+    @Override public double getRandomExcuseMeanNanos()
+    {
+        return randomExcuse.getMean();
+    }
+
+    @Override public long getRandomExcuseP99Nanos()
+    {
+        return randomExcuse.getQuantile(0.99);
+    }
+
+    @Override public long[] getRandomExcuseHistogram()
+    {
+        return randomExcuse.getCounts();
+    }
+
+    @Override public long getToStringCount()
+    {
+        return toString.getCount();
+    }
+
+    @Override public double getToStringMeanNanos()
+    {
+        return toString.getMean();
+    }
+
+    @Override public long getToStringP99Nanos()
+    {
+        return toString.getQuantile(0.99);
+    }
+
+    @Override public long[] getToStringHistogram()
+    {
+        return toString.getCounts();
+    }
+
+    @Override public Map<String, Long> getLoadNanos()
+    {
+        return Collections.unmodifiableMap(new TreeMap<>(loadNanos));
+    }
+
+    @Override public long getModelSize()
+    {
+        return modelSize;
+    }
+
+    @Override public long getModelEntries()
+    {
+        return modelEntries;
+    }
+
+    @Override public long getGeneratorSpins()
+    {
+        return generatorSpins.sum();
+    }
+
+    @Override public long getColumnSpins()
+    {
+        return columnSpins.sum();
+    }
+
+    @Override public void reset()
+    {
+        generated.reset();
+        randomExcuse.reset();
+        toString.reset();
+        generatorSpins.reset();
+        columnSpins.reset();
+        resetTime = System.nanoTime();
+    }
+}
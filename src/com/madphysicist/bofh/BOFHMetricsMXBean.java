@@ -0,0 +1,188 @@
+/*
+ * BOFHMetricsMXBean.java (Interface: com.madphysicist.bofh.BOFHMetricsMXBean)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link BOFHMetrics}. The attributes are read
+ * by JMX clients such as JConsole once the metrics have been {@linkplain
+ * BOFHMetrics#register() registered}. Latencies are reported in nanoseconds.
+ * Latency histograms have {@value BOFHLatencyHistogram#BUCKET_COUNT} buckets,
+ * where bucket {@code i} counts latencies below {@code 2^i} nanoseconds that
+ * do not fit in bucket {@code i - 1}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Described only loaded models.
+ * @since 1.0.0.0
+ */
+public interface BOFHMetricsMXBean
+{
+    /**
+     * Returns the number of excuses generated since the last reset.
+     *
+     * @return the number of generated excuses.
+     * @since 1.0.0.0
+     */
+    public long getExcusesGenerated();
+
+    /**
+     * Returns the average rate at which excuses were generated since the last
+     * reset.
+     *
+     * @return the number of excuses generated per second.
+     * @since 1.0.0.0
+     */
+    public double getExcusesPerSecond();
+
+    /**
+     * Returns the number of timed calls to {@link
+     * BOFHExcuseModel#getRandomExcuse(java.util.Random)}.
+     *
+     * @return the number of timed calls.
+     * @since 1.0.0.0
+     */
+    public long getRandomExcuseCount();
+
+    /**
+     * Returns the mean latency of {@link
+     * BOFHExcuseModel#getRandomExcuse(java.util.Random)}.
+     *
+     * @return the mean latency in nanoseconds.
+     * @since 1.0.0.0
+     */
+    public double getRandomExcuseMeanNanos();
+
+    /**
+     * Returns an upper bound on the 99th percentile latency of {@link
+     * BOFHExcuseModel#getRandomExcuse(java.util.Random)}.
+     *
+     * @return the percentile in nanoseconds.
+     * @since 1.0.0.0
+     */
+    public long getRandomExcuseP99Nanos();
+
+    /**
+     * Returns the latency histogram of {@link
+     * BOFHExcuseModel#getRandomExcuse(java.util.Random)}.
+     *
+     * @return the number of calls in each bucket.
+     * @since 1.0.0.0
+     */
+    public long[] getRandomExcuseHistogram();
+
+    /**
+     * Returns the number of excuses rendered by {@link BOFHExcuse#toString()}.
+     * Calls that return previously rendered text are not counted.
+     *
+     * @return the number of timed renderings.
+     * @since 1.0.0.0
+     */
+    public long getToStringCount();
+
+    /**
+     * Returns the mean latency of rendering an excuse.
+     *
+     * @return the mean latency in nanoseconds.
+     * @since 1.0.0.0
+     */
+    public double getToStringMeanNanos();
+
+    /**
+     * Returns an upper bound on the 99th percentile latency of rendering an
+     * excuse.
+     *
+     * @return the percentile in nanoseconds.
+     * @since 1.0.0.0
+     */
+    public long getToStringP99Nanos();
+
+    /**
+     * Returns the latency histogram of rendering an excuse.
+     *
+     * @return the number of renderings in each bucket.
+     * @since 1.0.0.0
+     */
+    public long[] getToStringHistogram();
+
+    /**
+     * Returns the time it took to load each column file or model resource,
+     * keyed by its name. Only the most recent load of each name is kept.
+     *
+     * @return the load times in nanoseconds.
+     * @since 1.0.0.0
+     */
+    public Map<String, Long> getLoadNanos();
+
+    /**
+     * Returns the number of distinct excuses in the most recently loaded
+     * model. Models derived from a loaded model, for example by adding a
+     * constraint, are not counted.
+     *
+     * @return the size of the latest model, or {@code -1} if it is too large
+     * to count.
+     * @since 1.0.0.0
+     */
+    public long getModelSize();
+
+    /**
+     * Returns the total number of entries in all the columns of the most
+     * recently loaded model.
+     *
+     * @return the number of entries in the latest model.
+     * @since 1.0.0.0
+     */
+    public long getModelEntries();
+
+    /**
+     * Returns the number of times all the columns of a generator were spun
+     * together.
+     *
+     * @return the number of spins of whole generators.
+     * @since 1.0.0.0
+     */
+    public long getGeneratorSpins();
+
+    /**
+     * Returns the number of times an individual column of a generator was
+     * spun with its own button.
+     *
+     * @return the number of spins of individual columns.
+     * @since 1.0.0.0
+     */
+    public long getColumnSpins();
+
+    /**
+     * Clears all the counters and histograms, and restarts the measurement of
+     * the generation rate. The load times and model size are kept.
+     *
+     * @since 1.0.0.0
+     */
+    public void reset();
+}
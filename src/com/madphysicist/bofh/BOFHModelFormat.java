@@ -0,0 +1,272 @@
+/*
+ * BOFHModelFormat.java (Class: com.madphysicist.bofh.BOFHModelFormat)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads and writes the precompiled binary form of a {@link BOFHExcuseModel}.
+ * The binary form stores the arenas of the model's columns exactly as they
+ * are held in memory, so a model can be loaded with a single bulk read and no
+ * parsing. The build compiles the default text columns into this form with
+ * the {@link #main(String[])} method, and bundles the result into the jar as
+ * the {@value #DEFAULT_RESOURCE} resource.
+ * <p>
+ * All values are big-endian. The layout is:
+ * <ol>
+ * <li>The magic number {@value #MAGIC} ({@code "BOFH"} in ASCII).</li>
+ * <li>The format version, currently {@value #VERSION}.</li>
+ * <li>The number of columns.</li>
+ * <li>For each column, a header of three {@code int}s: a set of flags, the
+ * number of entries, and the size of the arena in bytes. Flag {@value
+ * #ASCII_FLAG} is set if the column is pure ASCII, and flag {@value
+ * #WEIGHTED_FLAG} is set if the column is weighted.</li>
+ * <li>For each column, the offsets of the entries followed by the arena and,
+ * if the column is weighted, a {@code double} weight for each entry.</li>
+ * </ol>
+ * Only the current version of the format can be read.
+ * This class is not part of the public API.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Added weights in format version 2.
+ * @version 1.0.0.2, 16 Oct 2026 - Validated sizes and entries before use.
+ * @version 1.0.0.3, 16 Oct 2026 - Dropped support for unreleased versions.
+ * @since 1.0.0.0
+ */
+final class BOFHModelFormat
+{
+    /**
+     * The name of the resource containing the compiled default model.
+     *
+     * @since 1.0.0.0
+     */
+    static final String DEFAULT_RESOURCE = "BOFH.model";
+
+    /**
+     * The magic number at the start of every binary model.
+     *
+     * @since 1.0.0.0
+     */
+    static final int MAGIC = 0x424F4648;
+
+    /**
+     * The current version of the binary format.
+     *
+     * @since 1.0.0.0
+     */
+    static final int VERSION = 3;
+
+    /**
+     * The column flag indicating that the arena is pure ASCII.
+     *
+     * @since 1.0.0.1
+     */
+    static final int ASCII_FLAG = 1;
+
+    /**
+     * The column flag indicating that the entries have weights.
+     *
+     * @since 1.0.0.1
+     */
+    static final int WEIGHTED_FLAG = 2;
+
+    /**
+     * A private constructor to prevent instantiation.
+     *
+     * @since 1.0.0.0
+     */
+    private BOFHModelFormat() {}
+
+    /**
+     * Writes the binary form of a set of columns to a stream.
+     *
+     * @param columns the columns to write.
+     * @param out the stream to write to. The stream is not closed.
+     * @throws IOException if the stream throws an exception.
+     * @since 1.0.0.0
+     */
+    static void write(BOFHPhraseColumn[] columns, OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(columns.length);
+        for(BOFHPhraseColumn column : columns) {
+            int flags = column.isAscii() ? ASCII_FLAG : 0;
+            if(column.getWeights() != null)
+                flags |= WEIGHTED_FLAG;
+            data.writeInt(flags);
+            data.writeInt(column.size());
+            data.writeInt(column.getDataSize());
+        }
+        for(BOFHPhraseColumn column : columns) {
+            ByteBuffer offsets = ByteBuffer.allocate(4 * column.size());
+            offsets.asIntBuffer().put(column.getOffsets());
+            data.write(offsets.array());
+            data.write(column.getData());
+            double[] weights = column.getWeights();
+            if(weights != null) {
+                ByteBuffer encoded = ByteBuffer.allocate(8 * weights.length);
+                encoded.asDoubleBuffer().put(weights);
+                data.write(encoded.array());
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the binary form of a set of columns from a stream. The entire
+     * stream is read into memory with bulk reads before it is decoded.
+     *
+     * @param in the stream to read from. The stream is not closed.
+     * @return the columns read from the stream.
+     * @throws IOException if the stream throws an exception or does not
+     * contain a valid binary model.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn[] read(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream contents = new ByteArrayOutputStream(Math.max(in.available(), 8192));
+        byte[] buffer = new byte[65536];
+        int count;
+        while((count = in.read(buffer)) != -1)
+            contents.write(buffer, 0, count);
+        return read(ByteBuffer.wrap(contents.toByteArray()));
+    }
+
+    /**
+     * Decodes the binary form of a set of columns from a buffer.
+     *
+     * @param buffer the buffer containing the binary model.
+     * @return the columns read from the buffer.
+     * @throws IOException if the buffer does not contain a valid binary model.
+     * The sizes in the headers are checked against the remaining contents of
+     * the buffer before anything is allocated, and every entry is checked to
+     * lie entirely within its arena.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn[] read(ByteBuffer buffer) throws IOException
+    {
+        try {
+            if(buffer.getInt() != MAGIC)
+                throw new IOException("Not a binary BOFH model");
+            int version = buffer.getInt();
+            if(version != VERSION)
+                throw new IOException("Unsupported binary model version: " + version);
+
+            int columnCount = buffer.getInt();
+            if(columnCount < 0)
+                throw new IOException("Invalid column count: " + columnCount);
+            if(columnCount > buffer.remaining() / 12)
+                throw new IOException("Truncated binary model");
+            int[][] headers = new int[columnCount][3];
+            for(int[] header : headers) {
+                for(int field = 0; field < header.length; field++)
+                    header[field] = buffer.getInt();
+                if(header[1] < 0 || header[2] < 0)
+                    throw new IOException("Invalid column header");
+            }
+
+            BOFHPhraseColumn[] columns = new BOFHPhraseColumn[columnCount];
+            for(int index = 0; index < columnCount; index++) {
+                if(headers[index][1] > buffer.remaining() / 4)
+                    throw new IOException("Truncated binary model");
+                int[] offsets = new int[headers[index][1]];
+                buffer.asIntBuffer().get(offsets);
+                buffer.position(buffer.position() + 4 * offsets.length);
+                if(headers[index][2] > buffer.remaining())
+                    throw new IOException("Truncated binary model");
+                byte[] data = new byte[headers[index][2]];
+                buffer.get(data);
+                for(int offset : offsets)
+                    if(!BOFHPhraseColumn.isEncoded(data, offset))
+                        throw new IOException("Invalid entry in column " + index);
+                int flags = headers[index][0];
+                double[] weights = null;
+                if((flags & WEIGHTED_FLAG) != 0) {
+                    if(offsets.length > buffer.remaining() / 8)
+                        throw new IOException("Truncated binary model");
+                    weights = new double[offsets.length];
+                    buffer.asDoubleBuffer().get(weights);
+                    buffer.position(buffer.position() + 8 * weights.length);
+                }
+                try {
+                    columns[index] = new BOFHPhraseColumn(data, offsets, (flags & ASCII_FLAG) != 0, weights);
+                } catch(IllegalArgumentException iae) {
+                    throw new IOException("Invalid weights in column " + index, iae);
+                }
+            }
+            return columns;
+        } catch(BufferUnderflowException bue) {
+            throw new IOException("Truncated binary model", bue);
+        }
+    }
+
+    /**
+     * Compiles text column files into a binary model. This method is invoked
+     * by the build. The first argument is the output file, the second is the
+     * directory containing the column files, and the remaining arguments are
+     * the names of the column files, in order. The column files are read as
+     * UTF-8.
+     *
+     * @param args the output file, input directory and column file names.
+     * @throws IOException if any of the files could not be read or written.
+     * @since 1.0.0.0
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 2) {
+            System.err.println("Usage: BOFHModelFormat output-file input-dir [column-file ...]");
+            System.exit(1);
+        }
+
+        Path directory = Paths.get(args[1]);
+        Path[] files = new Path[args.length - 2];
+        for(int index = 0; index < files.length; index++)
+            files[index] = directory.resolve(args[index + 2]);
+
+        BOFHPhraseColumn[] columns = BOFHColumnReader.readPaths(files, StandardCharsets.UTF_8);
+        Path output = Paths.get(args[0]);
+        if(output.getParent() != null)
+            Files.createDirectories(output.getParent());
+        try(OutputStream out = Files.newOutputStream(output)) {
+            write(columns, out);
+        }
+    }
+}
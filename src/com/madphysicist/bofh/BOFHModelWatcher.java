@@ -0,0 +1,306 @@
+/*
+ * BOFHModelWatcher.java (Class: com.madphysicist.bofh.BOFHModelWatcher)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds an excuse model that is reloaded whenever its column files change on
+ * the file system. Changes are detected by a {@link WatchService} on a
+ * background thread, which also builds the new model. The new model replaces
+ * the old one with a single atomic reference swap, so callers that obtain
+ * the current model or generate excuses are never blocked, and never see a
+ * partially built model. If a rebuild fails, for example because a file is
+ * being written, the previous model is retained until the next change.
+ * <p>
+ * Each model published by the watcher has a higher {@linkplain
+ * BOFHExcuseModel#getVersion() version} than the one before it. The version
+ * of an excuse can be obtained from its model, and compared to {@link
+ * #getVersion()} to determine if the excuse is stale.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Survived files truncated during a reload.
+ * @version 1.0.0.2, 16 Oct 2026 - Recorded metrics for each published model.
+ * @since 1.0.0.0
+ */
+public class BOFHModelWatcher implements Closeable
+{
+    /**
+     * The time to wait for further changes after a change is detected, before
+     * rebuilding the model. This prevents a separate rebuild for every write
+     * to a file that is being edited, or for every file in a set of files that
+     * is being replaced. The value of this constant is {@value} milliseconds.
+     *
+     * @since 1.0.0.0
+     */
+    public static final long SETTLE_MILLIS = 200L;
+
+    /**
+     * The column files of the model, in order.
+     *
+     * @since 1.0.0.0
+     */
+    private final Path[] files;
+
+    /**
+     * The character set of the column files.
+     *
+     * @since 1.0.0.0
+     */
+    private final Charset charset;
+
+    /**
+     * The absolute, normalized names of the files. Events for other files in
+     * the same directories are ignored.
+     *
+     * @since 1.0.0.0
+     */
+    private final Set<Path> watchedFiles;
+
+    /**
+     * The current model. This reference is only ever replaced by a complete,
+     * newly built model.
+     *
+     * @since 1.0.0.0
+     */
+    private final AtomicReference<BOFHExcuseModel> current;
+
+    /**
+     * The service that reports changes to the directories containing the
+     * column files.
+     *
+     * @since 1.0.0.0
+     */
+    private final WatchService watchService;
+
+    /**
+     * The background thread that waits for changes and rebuilds the model.
+     *
+     * @since 1.0.0.0
+     */
+    private final Thread watchThread;
+
+    /**
+     * Loads the model from the specified column files and starts watching the
+     * files for changes. The initial model has version one.
+     *
+     * @param files the column files of the model, in order.
+     * @param charset the character set of the files.
+     * @throws IOException if the initial model could not be loaded, or the
+     * files could not be watched.
+     * @since 1.0.0.0
+     */
+    public BOFHModelWatcher(Path[] files, Charset charset) throws IOException
+    {
+        this.files = files.clone();
+        this.charset = charset;
+        this.current = new AtomicReference<>(new BOFHExcuseModel(this.files, charset).withVersion(1L));
+
+        this.watchedFiles = new HashSet<>();
+        Set<Path> directories = new HashSet<>();
+        for(Path file : this.files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            watchedFiles.add(absolute);
+            directories.add(absolute.getParent());
+        }
+
+        this.watchService = this.files[0].getFileSystem().newWatchService();
+        try {
+            for(Path directory : directories)
+                directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+        } catch(IOException ioe) {
+            watchService.close();
+            throw ioe;
+        }
+
+        this.watchThread = new Thread(new Runnable() {
+            @Override public void run() {
+                watch();
+            }
+        }, "BOFH Model Watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Returns the current model. This method never blocks.
+     *
+     * @return the most recently loaded model.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return current.get();
+    }
+
+    /**
+     * Returns the version of the current model.
+     *
+     * @return the version of the most recently loaded model.
+     * @since 1.0.0.0
+     */
+    public long getVersion()
+    {
+        return current.get().getVersion();
+    }
+
+    /**
+     * Generates a random excuse from the current model. This method never
+     * blocks. The version of the excuse is that of its model.
+     *
+     * @return a random excuse.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuse getRandomExcuse()
+    {
+        return current.get().getRandomExcuse();
+    }
+
+    /**
+     * Checks if an excuse was generated by the current model.
+     *
+     * @param excuse the excuse to check.
+     * @return {@code true} if the excuse has the same version as the current
+     * model, {@code false} if it is stale or was not generated by this watcher.
+     * @since 1.0.0.0
+     */
+    public boolean isCurrent(BOFHExcuse excuse)
+    {
+        BOFHExcuseModel model = excuse.getModel();
+        return model != null && model.getVersion() == getVersion();
+    }
+
+    /**
+     * Rebuilds the model immediately and publishes the result. This method is
+     * normally invoked by the background thread, but may be invoked directly.
+     * If two rebuilds overlap, the model with the higher version is kept.
+     *
+     * @return the new model.
+     * @throws IOException if the model could not be loaded. The current model
+     * is not changed in that case.
+     * @throws InternalError if a file is truncated while it is being read.
+     * Files are memory-mapped, so this is reported by the JVM rather than as
+     * an {@code IOException}. The current model is not changed in that case
+     * either.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel reload() throws IOException
+    {
+        BOFHExcuseModel loaded = new BOFHExcuseModel(files, charset);
+        while(true) {
+            BOFHExcuseModel previous = current.get();
+            BOFHExcuseModel next = loaded.withVersion(previous.getVersion() + 1L);
+            if(current.compareAndSet(previous, next)) {
+                BOFHMetrics.recordModel(next);
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Stops watching the files. The current model remains available, but will
+     * no longer be updated.
+     *
+     * @throws IOException if the watch service could not be closed.
+     * @since 1.0.0.0
+     */
+    @Override public void close() throws IOException
+    {
+        watchService.close();
+        watchThread.interrupt();
+    }
+
+    /**
+     * The body of the background thread. Waits for a change to one of the
+     * column files, lets the changes settle, and rebuilds the model. Exits
+     * when the watch service is closed or the thread is interrupted.
+     *
+     * @since 1.0.0.0
+     */
+    private void watch()
+    {
+        try {
+            while(true) {
+                if(!isRelevant(watchService.take()))
+                    continue;
+
+                // drain events until the files have stopped changing
+                WatchKey key;
+                while((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                    isRelevant(key);
+
+                try {
+                    reload();
+                } catch(IOException | RuntimeException | InternalError ex) {
+                    // Keep the previous model. The next change will trigger another attempt.
+                    // Files that are truncated while they are mapped fail with an InternalError.
+                }
+            }
+        } catch(InterruptedException | ClosedWatchServiceException ex) {
+            // The watcher has been closed.
+        }
+    }
+
+    /**
+     * Checks if any of the events of a watch key concern one of the column
+     * files, and resets the key.
+     *
+     * @param key a key returned by the watch service.
+     * @return {@code true} if one of the column files was affected.
+     * @since 1.0.0.0
+     */
+    private boolean isRelevant(WatchKey key)
+    {
+        boolean relevant = false;
+        Path directory = (Path)key.watchable();
+        for(WatchEvent<?> event : key.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                relevant = true;
+            else if(watchedFiles.contains(directory.resolve((Path)event.context())))
+                relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+}
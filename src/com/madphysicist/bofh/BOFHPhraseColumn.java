@@ -0,0 +1,718 @@
+/*
+ * BOFHPhraseColumn.java (Class: com.madphysicist.bofh.BOFHPhraseColumn)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.RandomAccess;
+
+/**
+ * A compact, immutable column of phrases for {@link BOFHExcuseModel}. All of
+ * the phrases are stored as UTF-8 in a single byte array, the arena. Each
+ * phrase is prefixed by its length in the arena, and an array of offsets
+ * records where each phrase starts. This takes up little more space than the
+ * raw text of the column, instead of a separate {@code String} per phrase.
+ * The column is presented as an unmodifiable list: {@code String} objects are
+ * only created when phrases are accessed through the list interface.
+ * <p>
+ * The length prefix is a variable-length integer holding seven bits per byte,
+ * least significant group first, with the high bit of each byte set when more
+ * bytes follow. The stored value is one more than the length of the phrase,
+ * so that a value of zero can represent a {@code null} entry.
+ * <p>
+ * Since each phrase is self-delimiting, several columns may share an arena,
+ * and several entries may point to the same encoded phrase. The arena may also
+ * contain phrases that are not referenced by any entry of a given column.
+ * <p>
+ * Phrases may optionally be weighted, in which case they are {@linkplain
+ * #sample(Random) sampled} in proportion to their weights using a {@linkplain
+ * BOFHAliasTable alias table}. Sampling takes constant time regardless of
+ * the size of the column.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Exposed the arena for the binary format.
+ * @version 1.0.0.2, 16 Oct 2026 - Added weighted sampling with alias tables.
+ * @version 1.0.0.3, 16 Oct 2026 - Shared the alias table code.
+ * @version 1.0.0.4, 16 Oct 2026 - Allowed arenas to be shared by columns.
+ * @version 1.0.0.5, 16 Oct 2026 - Appended phrases without decoding them to strings.
+ * @version 1.0.0.6, 16 Oct 2026 - Checked the number of weights of uniform columns.
+ * @version 1.0.0.7, 16 Oct 2026 - Added validation of encoded phrases.
+ * @since 1.0.0.0
+ */
+final class BOFHPhraseColumn extends AbstractList<String> implements RandomAccess, Serializable
+{
+    /**
+     * The version ID for serialization.
+     *
+     * @serial Increment the least significant three digits when compatibility
+     * is not compromised by a structural change (e.g. adding a new field with
+     * a sensible default value), and the upper digits when the change makes
+     * serialized versions of of the class incompatible with previous releases.
+     * @since 1.0.0.0
+     */
+    private static final long serialVersionUID = 1001L;
+
+    /**
+     * The arena containing the length-prefixed UTF-8 encoding of each phrase.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final byte[] data;
+
+    /**
+     * The offset of the length prefix of each phrase within the arena.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final int[] offsets;
+
+    /**
+     * Indicates whether all of the phrases consist exclusively of ASCII
+     * characters. In that case, each byte of the arena is a character, which
+     * allows the phrases to be copied into character buffers without decoding.
+     *
+     * @serial
+     * @since 1.0.0.0
+     */
+    private final boolean ascii;
+
+    /**
+     * The relative weight of each phrase, or {@code null} if all phrases are
+     * equally likely.
+     *
+     * @serial
+     * @since 1.0.0.2
+     */
+    private final double[] weights;
+
+    /**
+     * The probability of keeping each slot of the alias table rather than
+     * switching to its alias. This field is {@code null} if the column is not
+     * weighted.
+     *
+     * @serial
+     * @since 1.0.0.2
+     */
+    private final double[] probabilities;
+
+    /**
+     * The alias of each slot of the alias table. This field is {@code null} if
+     * the column is not weighted.
+     *
+     * @serial
+     * @since 1.0.0.2
+     */
+    private final int[] aliases;
+
+    /**
+     * Creates an unweighted column from an existing arena. The arrays are not
+     * copied.
+     *
+     * @param data the arena containing the phrases.
+     * @param offsets the offset of each phrase in the arena.
+     * @param ascii whether all the phrases are pure ASCII.
+     * @since 1.0.0.0
+     */
+    BOFHPhraseColumn(byte[] data, int[] offsets, boolean ascii)
+    {
+        this(data, offsets, ascii, null);
+    }
+
+    /**
+     * Creates a column from an existing arena, with optional weights. The
+     * arrays are not copied. The alias table is built immediately if weights
+     * are specified.
+     *
+     * @param data the arena containing the phrases.
+     * @param offsets the offset of each phrase in the arena.
+     * @param ascii whether all the phrases are pure ASCII.
+     * @param weights the relative weight of each phrase, or {@code null} for
+     * equally likely phrases.
+     * @throws IllegalArgumentException if the number of weights does not match
+     * the number of phrases, any weight is negative or not finite, or the
+     * weights add up to zero.
+     * @since 1.0.0.2
+     */
+    BOFHPhraseColumn(byte[] data, int[] offsets, boolean ascii, double[] weights)
+    {
+        this.data = data;
+        this.offsets = offsets;
+        this.ascii = ascii;
+        this.weights = weights;
+        if(weights == null) {
+            this.probabilities = null;
+            this.aliases = null;
+        } else {
+            if(weights.length != offsets.length)
+                throw new IllegalArgumentException("Expected " + offsets.length + " weights, got " + weights.length);
+            this.probabilities = new double[weights.length];
+            this.aliases = new int[weights.length];
+            BOFHAliasTable.build(weights, 0, weights.length, probabilities, aliases);
+        }
+    }
+
+    /**
+     * Creates a column containing the specified phrases, which may include
+     * {@code null}s.
+     *
+     * @param phrases the phrases of the column.
+     * @return a new column.
+     * @since 1.0.0.0
+     */
+    static BOFHPhraseColumn of(String[] phrases)
+    {
+        return of(phrases, null);
+    }
+
+    /**
+     * Creates a column containing the specified phrases, which may include
+     * {@code null}s, with optional weights.
+     *
+     * @param phrases the phrases of the column.
+     * @param weights the relative weight of each phrase, or {@code null} for
+     * equally likely phrases. The array is copied. If all the weights are one,
+     * the column is not weighted.
+     * @return a new column.
+     * @throws IllegalArgumentException if the number of weights does not match
+     * the number of phrases, or the weights are not valid.
+     * @since 1.0.0.2
+     */
+    static BOFHPhraseColumn of(String[] phrases, double[] weights)
+    {
+        if(weights != null && weights.length != phrases.length)
+            throw new IllegalArgumentException("Expected " + phrases.length + " weights, got " + weights.length);
+        Builder builder = new Builder(phrases.length, 16 * phrases.length);
+        for(String phrase : phrases)
+            builder.add(phrase);
+        BOFHPhraseColumn column = builder.build();
+        if(weights == null || isUniform(weights))
+            return column;
+        return new BOFHPhraseColumn(column.data, column.offsets, column.ascii, weights.clone());
+    }
+
+    /**
+     * Checks if all of the specified weights are one, in which case the column
+     * does not need to be weighted.
+     *
+     * @param weights the weights to check.
+     * @return {@code true} if every weight is exactly one.
+     * @since 1.0.0.2
+     */
+    private static boolean isUniform(double[] weights)
+    {
+        for(double weight : weights)
+            if(weight != 1.0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Selects the index of a random phrase. Unweighted columns select every
+     * phrase with equal probability. Weighted columns select phrases in
+     * proportion to their weights in constant time, using one integer and one
+     * floating point draw from the source.
+     *
+     * @param random the source of randomness.
+     * @return the index of the selected phrase.
+     * @since 1.0.0.2
+     */
+    int sample(Random random)
+    {
+        if(probabilities == null)
+            return random.nextInt(offsets.length);
+        return BOFHAliasTable.sample(probabilities, aliases, 0, offsets.length, random);
+    }
+
+    /**
+     * Returns the relative weight of the specified phrase.
+     *
+     * @param index the index of the phrase.
+     * @return the weight of the phrase, which is one for unweighted columns.
+     * @since 1.0.0.2
+     */
+    double getWeight(int index)
+    {
+        return (weights == null) ? 1.0 : weights[index];
+    }
+
+    /**
+     * Returns the weights of the phrases of this column without copying them.
+     * The result must not be modified.
+     *
+     * @return the internal array of weights, or {@code null} if the column is
+     * not weighted.
+     * @since 1.0.0.2
+     */
+    double[] getWeights()
+    {
+        return weights;
+    }
+
+    /**
+     * Decodes the phrase at the specified index into a new string.
+     *
+     * @param index the index of the phrase.
+     * @return the phrase, which may be {@code null}.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @since 1.0.0.0
+     */
+    @Override public String get(int index)
+    {
+        int stored = stored(index);
+        if(stored == 0)
+            return null;
+        return new String(data, start(index), stored - 1,
+                          ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    @Override public int size()
+    {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the offset of the UTF-8 bytes of the specified phrase within the
+     * arena, skipping the length prefix.
+     *
+     * @param index the index of the phrase.
+     * @return the start of the encoded phrase.
+     * @since 1.0.0.0
+     */
+    private int start(int index)
+    {
+        int position = offsets[index];
+        while(data[position] < 0)
+            position++;
+        return position + 1;
+    }
+
+    /**
+     * Returns the stored length of the specified phrase: one more than the
+     * number of bytes in its UTF-8 encoding, or zero for {@code null}.
+     *
+     * @param index the index of the phrase.
+     * @return the stored length of the phrase.
+     * @since 1.0.0.0
+     */
+    private int stored(int index)
+    {
+        int position = offsets[index];
+        int stored = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            stored |= (b & 0x7F) << shift;
+            shift += 7;
+        } while(b < 0);
+        return stored;
+    }
+
+    /**
+     * Checks if an arena contains a complete encoded phrase at the specified
+     * offset. The length prefix must be well formed, and the phrase must end
+     * within the arena. The contents of the phrase are not checked.
+     *
+     * @param data the arena to check.
+     * @param offset the offset of the length prefix of the phrase.
+     * @return {@code true} if the phrase lies entirely within the arena.
+     * @since 1.0.0.7
+     */
+    static boolean isEncoded(byte[] data, int offset)
+    {
+        if(offset < 0)
+            return false;
+        long stored = 0L;
+        int shift = 0;
+        int position = offset;
+        byte b;
+        do {
+            if(position >= data.length || shift > 28)
+                return false;
+            b = data[position++];
+            stored |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        } while(b < 0);
+        if(stored > Integer.MAX_VALUE)
+            return false;
+        return stored == 0L || position + stored - 1L <= data.length;
+    }
+
+    /**
+     * Checks if the specified phrase is {@code null}.
+     *
+     * @param index the index of the phrase.
+     * @return {@code true} if the phrase is {@code null}.
+     * @since 1.0.0.0
+     */
+    boolean isNull(int index)
+    {
+        return data[offsets[index]] == 0;
+    }
+
+    /**
+     * Returns the number of bytes that the specified phrase occupies in the
+     * arena, including its length prefix. The encoded phrase starts at its
+     * {@linkplain #getOffsets() offset}.
+     *
+     * @param index the index of the phrase.
+     * @return the size of the encoded phrase in the arena.
+     * @since 1.0.0.4
+     */
+    int encodedLength(int index)
+    {
+        return start(index) - offsets[index] + byteLength(index);
+    }
+
+    /**
+     * Returns the number of bytes in the UTF-8 encoding of the specified
+     * phrase.
+     *
+     * @param index the index of the phrase.
+     * @return the encoded length of the phrase, zero for {@code null}.
+     * @since 1.0.0.0
+     */
+    int byteLength(int index)
+    {
+        int stored = stored(index);
+        return (stored == 0) ? 0 : stored - 1;
+    }
+
+    /**
+     * Returns the number of characters in the specified phrase. The length is
+     * counted from the UTF-8 encoding, without decoding the phrase: every
+     * byte that does not continue a sequence is one character, except that
+     * four-byte sequences are two.
+     *
+     * @param index the index of the phrase.
+     * @return the length of the phrase, zero for {@code null}.
+     * @since 1.0.0.0
+     */
+    int charLength(int index)
+    {
+        int length = byteLength(index);
+        if(ascii)
+            return length;
+        int start = start(index);
+        int end = start + length;
+        int chars = 0;
+        for(int position = start; position < end; position++) {
+            byte b = data[position];
+            if((b & 0xC0) != 0x80)
+                chars++;
+            if((b & 0xF8) == 0xF0)
+                chars++;
+        }
+        return chars;
+    }
+
+    /**
+     * Appends the specified phrase to a buffer. The phrase is decoded straight
+     * from the arena, without creating a {@code String}. Nothing is appended
+     * for a {@code null} phrase.
+     *
+     * @param index the index of the phrase.
+     * @param sb the buffer to append to.
+     * @since 1.0.0.0
+     */
+    void appendTo(int index, StringBuilder sb)
+    {
+        try {
+            appendTo(index, (Appendable)sb);
+        } catch(IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Appends the specified phrase to a destination one character at a time.
+     * The phrase is decoded straight from the arena, without creating a
+     * {@code String}. Nothing is appended for a {@code null} phrase.
+     *
+     * @param index the index of the phrase.
+     * @param out the destination to append to.
+     * @throws IOException if the destination throws an exception.
+     * @since 1.0.0.5
+     */
+    void appendTo(int index, Appendable out) throws IOException
+    {
+        int start = start(index);
+        int end = start + byteLength(index);
+        if(ascii) {
+            for(int position = start; position < end; position++)
+                out.append((char)data[position]);
+            return;
+        }
+        int position = start;
+        while(position < end) {
+            int b = data[position++];
+            if(b >= 0) {
+                out.append((char)b);
+            } else if((b & 0xE0) == 0xC0) {
+                out.append((char)(((b & 0x1F) << 6) | (data[position++] & 0x3F)));
+            } else if((b & 0xF0) == 0xE0) {
+                int c = ((b & 0x0F) << 12) | ((data[position++] & 0x3F) << 6);
+                out.append((char)(c | (data[position++] & 0x3F)));
+            } else {
+                int c = ((b & 0x07) << 18) | ((data[position++] & 0x3F) << 12);
+                c |= (data[position++] & 0x3F) << 6;
+                c |= data[position++] & 0x3F;
+                out.append(Character.highSurrogate(c)).append(Character.lowSurrogate(c));
+            }
+        }
+    }
+
+    /**
+     * Copies the UTF-8 encoding of the specified phrase into a buffer. Nothing
+     * is copied for a {@code null} phrase.
+     *
+     * @param index the index of the phrase.
+     * @param out the buffer to copy into. It must have enough space remaining.
+     * @since 1.0.0.0
+     */
+    void putTo(int index, ByteBuffer out)
+    {
+        out.put(data, start(index), byteLength(index));
+    }
+
+    /**
+     * Checks if all of the phrases in this column are pure ASCII.
+     *
+     * @return {@code true} if every byte of the arena is an ASCII character.
+     * @since 1.0.0.1
+     */
+    boolean isAscii()
+    {
+        return ascii;
+    }
+
+    /**
+     * Returns the arena of this column without copying it. The result must not
+     * be modified.
+     *
+     * @return the internal arena.
+     * @since 1.0.0.1
+     */
+    byte[] getData()
+    {
+        return data;
+    }
+
+    /**
+     * Returns the offsets of the phrases of this column without copying them.
+     * The result must not be modified.
+     *
+     * @return the internal array of offsets.
+     * @since 1.0.0.1
+     */
+    int[] getOffsets()
+    {
+        return offsets;
+    }
+
+    /**
+     * Returns the number of bytes used by the arena of this column. This is
+     * close to the size of the raw text of the column, unless the arena is
+     * shared with other columns, in which case it includes their phrases.
+     *
+     * @return the size of the arena, in bytes.
+     * @since 1.0.0.0
+     */
+    int getDataSize()
+    {
+        return data.length;
+    }
+
+    /**
+     * Accumulates phrases into a new arena. The arrays are grown geometrically
+     * as needed, and trimmed to size when the column is built.
+     *
+     * @since 1.0.0.0
+     */
+    static final class Builder
+    {
+        private byte[] data;
+        private int length;
+        private int[] offsets;
+        private int count;
+        private boolean ascii;
+        private double[] weights;
+
+        /**
+         * Creates a builder with the specified initial capacity.
+         *
+         * @param phrases the expected number of phrases.
+         * @param bytes the expected total number of bytes.
+         * @since 1.0.0.0
+         */
+        Builder(int phrases, int bytes)
+        {
+            this.data = new byte[Math.max(bytes, 16)];
+            this.offsets = new int[Math.max(phrases, 16)];
+            this.ascii = true;
+        }
+
+        /**
+         * Appends a phrase from a string.
+         *
+         * @param phrase the phrase to add, possibly {@code null}.
+         * @since 1.0.0.0
+         */
+        void add(String phrase)
+        {
+            if(phrase == null) {
+                addPrefix(0);
+            } else {
+                byte[] bytes = phrase.getBytes(StandardCharsets.UTF_8);
+                add(bytes, 0, bytes.length);
+            }
+        }
+
+        /**
+         * Appends a phrase from an array of UTF-8 bytes.
+         *
+         * @param bytes the array containing the phrase.
+         * @param offset the start of the phrase in the array.
+         * @param size the number of bytes in the phrase.
+         * @since 1.0.0.0
+         */
+        void add(byte[] bytes, int offset, int size)
+        {
+            addPrefix(size + 1);
+            System.arraycopy(bytes, offset, data, length, size);
+            checkAscii(length, size);
+            length += size;
+        }
+
+        /**
+         * Appends a phrase from a buffer of UTF-8 bytes, such as a mapped
+         * file. The position of the buffer is not changed.
+         *
+         * @param buffer the buffer containing the phrase.
+         * @param position the start of the phrase in the buffer.
+         * @param size the number of bytes in the phrase.
+         * @since 1.0.0.0
+         */
+        void add(ByteBuffer buffer, int position, int size)
+        {
+            addPrefix(size + 1);
+            ByteBuffer source = buffer.duplicate();
+            source.position(position);
+            source.get(data, length, size);
+            checkAscii(length, size);
+            length += size;
+        }
+
+        /**
+         * Records the offset of a new phrase and writes its length prefix,
+         * ensuring that there is room for the phrase itself.
+         *
+         * @param stored the value of the prefix.
+         * @since 1.0.0.0
+         */
+        private void addPrefix(int stored)
+        {
+            if(count == offsets.length)
+                offsets = Arrays.copyOf(offsets, 2 * count);
+            offsets[count++] = length;
+
+            int required = length + 5 + Math.max(stored - 1, 0);
+            if(required < 0)
+                throw new OutOfMemoryError("Column too large");
+            if(required > data.length)
+                data = Arrays.copyOf(data, Math.max(required, 2 * data.length));
+
+            while((stored & ~0x7F) != 0) {
+                data[length++] = (byte)((stored & 0x7F) | 0x80);
+                stored >>>= 7;
+            }
+            data[length++] = (byte)stored;
+        }
+
+        /**
+         * Sets the weight of the most recently added phrase. Phrases have a
+         * weight of one unless this method is called. The column is only
+         * weighted if at least one weight is set to a different value.
+         *
+         * @param weight the relative weight of the last phrase.
+         * @since 1.0.0.2
+         */
+        void setWeight(double weight)
+        {
+            if(weights == null) {
+                if(weight == 1.0)
+                    return;
+                weights = new double[offsets.length];
+                Arrays.fill(weights, 1.0);
+            } else if(weights.length < offsets.length) {
+                int length = weights.length;
+                weights = Arrays.copyOf(weights, offsets.length);
+                Arrays.fill(weights, length, weights.length, 1.0);
+            }
+            weights[count - 1] = weight;
+        }
+
+        private void checkAscii(int start, int size)
+        {
+            if(ascii) {
+                for(int index = start; index < start + size; index++) {
+                    if(data[index] < 0) {
+                        ascii = false;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Creates a column containing all of the phrases added so far.
+         *
+         * @return a new column.
+         * @since 1.0.0.0
+         */
+        BOFHPhraseColumn build()
+        {
+            double[] columnWeights = null;
+            if(weights != null) {
+                columnWeights = Arrays.copyOf(weights, count);
+                if(weights.length < count)
+                    Arrays.fill(columnWeights, weights.length, count, 1.0);
+            }
+            return new BOFHPhraseColumn(Arrays.copyOf(data, length),
+                                        Arrays.copyOf(offsets, count), ascii, columnWeights);
+        }
+    }
+}
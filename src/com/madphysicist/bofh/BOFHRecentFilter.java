@@ -0,0 +1,336 @@
+/*
+ * BOFHRecentFilter.java (Class: com.madphysicist.bofh.BOFHRecentFilter)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates random excuses while avoiding the ones that were generated
+ * recently. This is intended to be kept per session, so that an interactive
+ * user does not see the same excuse twice in a short time. The excuses that
+ * were seen are remembered in a rotating Bloom filter keyed on their indices,
+ * so the memory used by a session is fixed, regardless of how many excuses it
+ * generates.
+ * <p>
+ * The filter consists of two generations of equal size. New excuses are added
+ * to the current generation. Once it holds as many excuses as the capacity of
+ * the filter, it becomes the previous generation, and the old previous
+ * generation is cleared to become the new current one. A candidate excuse is
+ * considered recent if it is found in either generation. The filter therefore
+ * always remembers at least the last {@code capacity} excuses, and at most
+ * twice as many.
+ * <p>
+ * A Bloom filter can report false positives, which cause an excuse that was
+ * not seen recently to be redrawn. The rate of false positives is chosen when
+ * the filter is created. A candidate that hits the filter is redrawn up to
+ * {@value #MAX_REDRAWS} times, after which it is accepted anyway, so a filter
+ * whose capacity approaches the size of the model can not stall generation.
+ * <p>
+ * This class is not thread-safe. Each session should have its own instance.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+public class BOFHRecentFilter
+{
+    /**
+     * The maximum number of times a candidate is redrawn because it hits the
+     * filter. The value of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    public static final int MAX_REDRAWS = 16;
+
+    /**
+     * The model that excuses are generated from.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * The number of excuses in a generation.
+     *
+     * @since 1.0.0.0
+     */
+    private final int capacity;
+
+    /**
+     * The number of bits set for each excuse.
+     *
+     * @since 1.0.0.0
+     */
+    private final int hashCount;
+
+    /**
+     * The mask that maps a hash to a bit of a generation. Generations have a
+     * power of two number of bits.
+     *
+     * @since 1.0.0.0
+     */
+    private final int mask;
+
+    /**
+     * The bits of the current generation.
+     *
+     * @since 1.0.0.0
+     */
+    private long[] current;
+
+    /**
+     * The bits of the previous generation.
+     *
+     * @since 1.0.0.0
+     */
+    private long[] previous;
+
+    /**
+     * The number of excuses added to the current generation.
+     *
+     * @since 1.0.0.0
+     */
+    private int count;
+
+    /**
+     * A scratch array for drawing candidates.
+     *
+     * @since 1.0.0.0
+     */
+    private final int[] scratch;
+
+    /**
+     * Creates a filter for the specified model. The number of bits and hash
+     * functions are derived from the capacity and false positive rate with
+     * the usual formulas for Bloom filters. The number of bits in each
+     * generation is rounded up to a power of two, which only lowers the false
+     * positive rate.
+     *
+     * @param model the model to generate excuses from.
+     * @param capacity the number of recent excuses that are always
+     * remembered.
+     * @param falsePositiveRate the probability that an excuse which was not
+     * seen recently is taken for one that was, in each generation.
+     * @throws IllegalArgumentException if the capacity is not positive, the
+     * false positive rate is not strictly between zero and one, or the filter
+     * would be too large.
+     * @since 1.0.0.0
+     */
+    public BOFHRecentFilter(BOFHExcuseModel model, int capacity, double falsePositiveRate)
+    {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity: " + capacity);
+        if(!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0))
+            throw new IllegalArgumentException("False positive rate: " + falsePositiveRate);
+
+        double ln2 = Math.log(2.0);
+        double bits = Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        if(bits > (1 << 30))
+            throw new IllegalArgumentException("Filter too large: " + bits + " bits");
+        int size = Math.max(Integer.highestOneBit((int)bits - 1) << 1, 64);
+
+        this.model = model;
+        this.capacity = capacity;
+        this.hashCount = Math.max(1, (int)Math.round(bits / capacity * ln2));
+        this.mask = size - 1;
+        this.current = new long[size >>> 6];
+        this.previous = new long[size >>> 6];
+        this.scratch = new int[model.getColumnCount()];
+    }
+
+    /**
+     * Returns the model that excuses are generated from.
+     *
+     * @return the model of this filter.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return model;
+    }
+
+    /**
+     * Generates a random excuse that was not generated recently, using the
+     * generator of the current thread. The excuse is added to the filter.
+     *
+     * @return a random excuse.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuse getRandomExcuse()
+    {
+        return getRandomExcuse(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generates a random excuse that was not generated recently, using the
+     * specified source of randomness. The excuse is added to the filter.
+     *
+     * @param random the source of randomness.
+     * @return a random excuse.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuse getRandomExcuse(Random random)
+    {
+        return model.getExcuse(getRandomIndices(scratch, random));
+    }
+
+    /**
+     * Selects a random excuse that was not generated recently, without
+     * creating an excuse object. The selection is added to the filter.
+     *
+     * @param indices an array to fill with one index per column. If the array
+     * is {@code null}, a new one is allocated.
+     * @param random the source of randomness.
+     * @return the filled array of indices.
+     * @since 1.0.0.0
+     */
+    public int[] getRandomIndices(int[] indices, Random random)
+    {
+        indices = model.getRandomIndices(indices, random);
+        long hash = hash(indices);
+        for(int redraw = 0; redraw < MAX_REDRAWS && contains(hash); redraw++)
+            hash = hash(model.getRandomIndices(indices, random));
+        add(hash);
+        return indices;
+    }
+
+    /**
+     * Checks if an excuse was generated recently. False positives are
+     * possible, but false negatives are not, for excuses added since the
+     * last rotation but one.
+     *
+     * @param excuse an excuse from the model of this filter.
+     * @return {@code true} if the excuse was probably seen recently.
+     * @since 1.0.0.0
+     */
+    public boolean mightContain(BOFHExcuse excuse)
+    {
+        return contains(hash(excuse.getIndexArray()));
+    }
+
+    /**
+     * Records that an excuse was seen, for example because it was generated
+     * by other means.
+     *
+     * @param excuse an excuse from the model of this filter.
+     * @since 1.0.0.0
+     */
+    public void add(BOFHExcuse excuse)
+    {
+        add(hash(excuse.getIndexArray()));
+    }
+
+    /**
+     * Forgets all the excuses that were seen.
+     *
+     * @since 1.0.0.0
+     */
+    public void clear()
+    {
+        Arrays.fill(current, 0L);
+        Arrays.fill(previous, 0L);
+        count = 0;
+    }
+
+    /**
+     * Checks if either generation contains a hash.
+     *
+     * @param hash the hash of a selection of indices.
+     * @return {@code true} if all the bits of the hash are set in either
+     * generation.
+     * @since 1.0.0.0
+     */
+    private boolean contains(long hash)
+    {
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    /**
+     * Checks if a generation contains a hash. The bits are derived from the
+     * two halves of the hash by double hashing.
+     *
+     * @param bits the generation to check.
+     * @param hash the hash of a selection of indices.
+     * @return {@code true} if all the bits of the hash are set.
+     * @since 1.0.0.0
+     */
+    private boolean contains(long[] bits, long hash)
+    {
+        int first = (int)hash;
+        int step = (int)(hash >>> 32) | 1;
+        for(int index = 0; index < hashCount; index++) {
+            int bit = (first + index * step) & mask;
+            if((bits[bit >>> 6] & (1L << bit)) == 0L)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a hash to the current generation, rotating the generations first
+     * if the current one is full.
+     *
+     * @param hash the hash of a selection of indices.
+     * @since 1.0.0.0
+     */
+    private void add(long hash)
+    {
+        if(count == capacity) {
+            long[] cleared = previous;
+            Arrays.fill(cleared, 0L);
+            previous = current;
+            current = cleared;
+            count = 0;
+        }
+
+        int first = (int)hash;
+        int step = (int)(hash >>> 32) | 1;
+        for(int index = 0; index < hashCount; index++) {
+            int bit = (first + index * step) & mask;
+            current[bit >>> 6] |= 1L << bit;
+        }
+        count++;
+    }
+
+    /**
+     * Computes a 64-bit hash of a selection of indices.
+     *
+     * @param indices the selection to hash.
+     * @return the hash of the selection.
+     * @since 1.0.0.0
+     */
+    private static long hash(int[] indices)
+    {
+        long hash = 0L;
+        for(int index : indices)
+            hash = BOFHExcusePermutation.mix(hash + index + BOFHExcusePermutation.GOLDEN_GAMMA);
+        return hash;
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * BOFHServer.java (Class: com.madphysicist.bofh.BOFHServer)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.management.JMException;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves excuses over HTTP without a GUI. This class uses the HTTP server that
+ * is built into the JDK, and does not load any Swing or AWT classes, so it can
+ * run on a headless machine. The following endpoints are provided, all of
+ * which respond to {@code GET} requests with UTF-8 plain text:
+ * <dl>
+ * <dt>{@code /excuse}</dt>
+ * <dd>A single random excuse.</dd>
+ * <dt>{@code /excuse?rank=R}</dt>
+ * <dd>The excuse with {@linkplain BOFHExcuseModel#getExcuse(long) rank}
+ * {@code R}.</dd>
+ * <dt>{@code /excuse?indices=I,J,K...}</dt>
+ * <dd>The excuse with the specified index in each column.</dd>
+ * <dt>{@code /excuses?count=N}</dt>
+ * <dd>{@code N} random excuses, one per line, up to {@value #MAX_COUNT}.</dd>
+ * </dl>
+ * Every response carries the version of the model that produced it in the
+ * {@value #VERSION_HEADER} header. Response bodies are encoded by copying the
+ * UTF-8 phrases of the model straight into a byte array, without creating
+ * intermediate excuse or string objects.
+ * <p>
+ * Each request is handled on its own virtual thread if the runtime supports
+ * them, and on a fixed pool of platform threads otherwise.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Registered metrics.
+ * @version 1.0.0.2, 16 Oct 2026 - Rejected ranks of oversized models.
+ * @since 1.0.0.0
+ */
+public class BOFHServer
+{
+    /**
+     * The default port of the server. The value of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The maximum number of excuses that can be requested at once. The value
+     * of this constant is {@value}.
+     *
+     * @since 1.0.0.0
+     */
+    public static final int MAX_COUNT = 100000;
+
+    /**
+     * The name of the response header containing the version of the model.
+     *
+     * @since 1.0.0.0
+     */
+    public static final String VERSION_HEADER = "X-BOFH-Version";
+
+    /**
+     * The content type of all responses.
+     *
+     * @since 1.0.0.0
+     */
+    private static final String CONTENT_TYPE = "text/plain; charset=UTF-8";
+
+    /**
+     * A fixed model to serve excuses from, or {@code null} if the model is
+     * supplied by {@link #watcher}.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHExcuseModel model;
+
+    /**
+     * A watcher that supplies a reloadable model, or {@code null} if a fixed
+     * {@link #model} is used.
+     *
+     * @since 1.0.0.0
+     */
+    private final BOFHModelWatcher watcher;
+
+    /**
+     * The underlying HTTP server.
+     *
+     * @since 1.0.0.0
+     */
+    private final HttpServer server;
+
+    /**
+     * The executor that runs the request handlers.
+     *
+     * @since 1.0.0.0
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for a fixed model. The server is not started until
+     * {@link #start()} is invoked.
+     *
+     * @param model the model to serve.
+     * @param port the port to listen on. Zero selects an ephemeral port.
+     * @throws IOException if the server could not be bound to the port.
+     * @since 1.0.0.0
+     */
+    public BOFHServer(BOFHExcuseModel model, int port) throws IOException
+    {
+        this(model, null, port);
+    }
+
+    /**
+     * Creates a server for a model that is reloaded by a watcher whenever its
+     * files change. The server is not started until {@link #start()} is
+     * invoked.
+     *
+     * @param watcher the watcher supplying the model to serve.
+     * @param port the port to listen on. Zero selects an ephemeral port.
+     * @throws IOException if the server could not be bound to the port.
+     * @since 1.0.0.0
+     */
+    public BOFHServer(BOFHModelWatcher watcher, int port) throws IOException
+    {
+        this(null, watcher, port);
+    }
+
+    /**
+     * Creates the server and registers the endpoints.
+     *
+     * @param model the fixed model, or {@code null}.
+     * @param watcher the model watcher, or {@code null}.
+     * @param port the port to listen on.
+     * @throws IOException if the server could not be bound to the port.
+     * @since 1.0.0.0
+     */
+    private BOFHServer(BOFHExcuseModel model, BOFHModelWatcher watcher, int port) throws IOException
+    {
+        this.model = model;
+        this.watcher = watcher;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = createExecutor();
+
+        server.setExecutor(executor);
+        server.createContext("/excuse", new HttpHandler() {
+            @Override public void handle(HttpExchange exchange) throws IOException {
+                handleExcuse(exchange);
+            }
+        });
+        server.createContext("/excuses", new HttpHandler() {
+            @Override public void handle(HttpExchange exchange) throws IOException {
+                handleExcuses(exchange);
+            }
+        });
+    }
+
+    /**
+     * Starts accepting requests.
+     *
+     * @since 1.0.0.0
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to the specified number of seconds for
+     * requests in progress to complete.
+     *
+     * @param delay the maximum time to wait, in seconds.
+     * @since 1.0.0.0
+     */
+    public void stop(int delay)
+    {
+        server.stop(delay);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the address that the server is bound to. This is useful for
+     * finding the port when the server was created with an ephemeral port.
+     *
+     * @return the address of the server.
+     * @since 1.0.0.0
+     */
+    public InetSocketAddress getAddress()
+    {
+        return server.getAddress();
+    }
+
+    /**
+     * Returns the model that currently backs the server.
+     *
+     * @return the current model.
+     * @since 1.0.0.0
+     */
+    public BOFHExcuseModel getModel()
+    {
+        return (watcher == null) ? model : watcher.getModel();
+    }
+
+    /**
+     * Handles the single excuse endpoint.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be sent.
+     * @since 1.0.0.0
+     */
+    private void handleExcuse(HttpExchange exchange) throws IOException
+    {
+        if(!checkRequest(exchange, "/excuse"))
+            return;
+
+        BOFHExcuseModel current = getModel();
+        int[] indices;
+        try {
+            String rank = getParameter(exchange.getRequestURI(), "rank");
+            String indexList = getParameter(exchange.getRequestURI(), "indices");
+            if(rank != null) {
+                indices = current.getIndices(Long.parseLong(rank), null);
+            } else if(indexList != null) {
+                String[] parts = indexList.split(",");
+                if(parts.length != current.getColumnCount())
+                    throw new IndexOutOfBoundsException("Index count: " + parts.length);
+                indices = new int[parts.length];
+                for(int index = 0; index < parts.length; index++) {
+                    indices[index] = Integer.parseInt(parts[index].trim());
+                    if(indices[index] < 0 || indices[index] >= current.getColumn(index).size())
+                        throw new IndexOutOfBoundsException("Column " + index + ": " + indices[index]);
+                }
+            } else {
+                indices = current.getRandomIndices(null, ThreadLocalRandom.current());
+            }
+        } catch(NumberFormatException | IndexOutOfBoundsException | ArithmeticException ex) {
+            // ranks are not supported by models with more than Long.MAX_VALUE excuses
+            sendError(exchange, 400, "Invalid excuse selection");
+            return;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(current.getExcuseByteLength(indices) + 1);
+        current.putExcuse(body, indices);
+        body.put((byte)'\n');
+        send(exchange, 200, current.getVersion(), body.array());
+    }
+
+    /**
+     * Handles the batch endpoint.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be sent.
+     * @since 1.0.0.0
+     */
+    private void handleExcuses(HttpExchange exchange) throws IOException
+    {
+        if(!checkRequest(exchange, "/excuses"))
+            return;
+
+        int count;
+        try {
+            String countString = getParameter(exchange.getRequestURI(), "count");
+            count = (countString == null) ? 1 : Integer.parseInt(countString);
+        } catch(NumberFormatException nfe) {
+            count = -1;
+        }
+        if(count < 0 || count > MAX_COUNT) {
+            sendError(exchange, 400, "Count must be between 0 and " + MAX_COUNT);
+            return;
+        }
+
+        BOFHExcuseModel current = getModel();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] indices = new int[current.getColumnCount()];
+        ByteBuffer body = ByteBuffer.allocate(64 * count + 64);
+        for(int excuse = 0; excuse < count; excuse++) {
+            current.getRandomIndices(indices, random);
+            int length = current.getExcuseByteLength(indices) + 1;
+            if(body.remaining() < length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * body.capacity(), body.position() + length));
+                body.flip();
+                larger.put(body);
+                body = larger;
+            }
+            current.putExcuse(body, indices);
+            body.put((byte)'\n');
+        }
+
+        byte[] bytes = body.array();
+        send(exchange, 200, current.getVersion(), bytes, body.position());
+    }
+
+    /**
+     * Verifies the method and path of a request, and sends an error response
+     * if they are not acceptable.
+     *
+     * @param exchange the request and response.
+     * @param path the exact path of the endpoint.
+     * @return {@code true} if the request should be processed.
+     * @throws IOException if an error response could not be sent.
+     * @since 1.0.0.0
+     */
+    private boolean checkRequest(HttpExchange exchange, String path) throws IOException
+    {
+        if(!exchange.getRequestURI().getPath().equals(path)) {
+            sendError(exchange, 404, "Not found");
+            return false;
+        }
+        if(!exchange.getRequestMethod().equals("GET")) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            sendError(exchange, 405, "Method not allowed");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends an error response with a plain text message.
+     *
+     * @param exchange the request and response.
+     * @param status the status code of the response.
+     * @param message the body of the response.
+     * @throws IOException if the response could not be sent.
+     * @since 1.0.0.0
+     */
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException
+    {
+        send(exchange, status, getModel().getVersion(), (message + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a complete response.
+     *
+     * @param exchange the request and response.
+     * @param status the status code of the response.
+     * @param version the version of the model that produced the response.
+     * @param body the encoded body of the response.
+     * @throws IOException if the response could not be sent.
+     * @since 1.0.0.0
+     */
+    private static void send(HttpExchange exchange, int status, long version, byte[] body) throws IOException
+    {
+        send(exchange, status, version, body, body.length);
+    }
+
+    /**
+     * Sends a complete response whose body is the initial part of an array.
+     *
+     * @param exchange the request and response.
+     * @param status the status code of the response.
+     * @param version the version of the model that produced the response.
+     * @param body the array containing the encoded body of the response.
+     * @param length the number of bytes of the array to send.
+     * @throws IOException if the response could not be sent.
+     * @since 1.0.0.0
+     */
+    private static void send(HttpExchange exchange, int status, long version, byte[] body, int length) throws IOException
+    {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", CONTENT_TYPE);
+        headers.set(VERSION_HEADER, Long.toString(version));
+        exchange.sendResponseHeaders(status, (length == 0) ? -1 : length);
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(body, 0, length);
+        }
+    }
+
+    /**
+     * Extracts the value of a query parameter from a request URI. The query is
+     * not decoded, since none of the expected values contain escaped
+     * characters.
+     *
+     * @param uri the request URI.
+     * @param name the name of the parameter.
+     * @return the value of the first parameter with the specified name, or
+     * {@code null} if there is none.
+     * @since 1.0.0.0
+     */
+    private static String getParameter(URI uri, String name)
+    {
+        String query = uri.getRawQuery();
+        if(query == null)
+            return null;
+        for(String pair : query.split("&")) {
+            int split = pair.indexOf('=');
+            if(split == name.length() && pair.startsWith(name))
+                return pair.substring(split + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the executor for the request handlers. If the runtime provides
+     * virtual threads, each request gets its own virtual thread. Otherwise, a
+     * fixed pool of platform threads is used. Virtual threads are looked up
+     * reflectively so that the server can still be built for older runtimes.
+     *
+     * @return the executor for the request handlers.
+     * @since 1.0.0.0
+     */
+    private static ExecutorService createExecutor()
+    {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)factory.invoke(null);
+        } catch(ReflectiveOperationException roe) {
+            return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Runs the server until the process is terminated. The first argument, if
+     * present, is the port to listen on. Any remaining arguments are UTF-8
+     * column files to serve instead of the default model. The files are
+     * watched, and the model is reloaded when they change. The {@linkplain
+     * BOFHMetrics metrics} are registered with the platform MBean server.
+     *
+     * @param args the port and optional column files.
+     * @throws IOException if the model could not be loaded or the server could
+     * not be started.
+     * @since 1.0.0.0
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            BOFHMetrics.register();
+        } catch(JMException jme) {
+            System.err.println("Metrics unavailable: " + jme.getMessage());
+        }
+
+        final BOFHServer server;
+        if(args.length > 1) {
+            Path[] files = new Path[args.length - 1];
+            for(int index = 0; index < files.length; index++)
+                files[index] = Paths.get(args[index + 1]);
+            server = new BOFHServer(new BOFHModelWatcher(files, StandardCharsets.UTF_8), port);
+        } else {
+            server = new BOFHServer(new BOFHExcuseModel(), port);
+        }
+        server.start();
+        System.err.println("Serving excuses on port " + server.getAddress().getPort());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * BOFHSpinnerWindow.java (Class: com.madphysicist.bofh.BOFHSpinnerWindow)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * A fixed-size view of a column of an excuse model, used as the contents of a
+ * spinner when the column is too large to be displayed in full. The view
+ * holds a random sample of the indices of the column, drawn the same way as
+ * random excuses. The entry that a spinner lands on therefore has the same
+ * distribution as the corresponding component of {@link
+ * BOFHExcuseModel#getRandomExcuse()}, including the effects of weights, and
+ * of constraints on that column alone. Each spinner lands independently, so
+ * the combination shown by all the spinners of a generator does not respect
+ * constraints between columns, just as it does not with full columns.
+ * <p>
+ * Only the indices are stored by the view. The entries are looked up in the
+ * model when the view is read, which normally happens once, when the view is
+ * copied into a new spinner model. A new view is sampled for every spin, so
+ * every entry of the column can come up over time. The memory used by a view,
+ * and the time it takes to create and copy one, depend on the size of the
+ * view but not on the size of the column.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Sampled a new view for every spin.
+ * @since 1.0.0.0
+ */
+final class BOFHSpinnerWindow extends AbstractList<String> implements RandomAccess
+{
+    /**
+     * The column of the model that entries are fetched from.
+     *
+     * @since 1.0.0.0
+     */
+    private final List<String> column;
+
+    /**
+     * The sampled indices into the column.
+     *
+     * @since 1.0.0.0
+     */
+    private final int[] indices;
+
+    /**
+     * Creates a view of a random sample of a column.
+     *
+     * @param model the model to sample.
+     * @param column the index of the column to view.
+     * @param size the number of entries in the view.
+     * @param random the source of randomness.
+     * @since 1.0.0.0
+     */
+    BOFHSpinnerWindow(BOFHExcuseModel model, int column, int size, Random random)
+    {
+        this.column = model.getColumn(column);
+        this.indices = new int[size];
+        int[] excuse = new int[model.getColumnCount()];
+        for(int index = 0; index < size; index++)
+            indices[index] = model.getRandomIndices(excuse, random)[column];
+    }
+
+    /**
+     * Creates a supplier of new views of a column, one for each spin.
+     *
+     * @param model the model to sample.
+     * @param column the index of the column to view.
+     * @param size the number of entries in each view.
+     * @return a supplier of views sampled with the generator of the calling
+     * thread.
+     * @since 1.0.0.0
+     */
+    static Supplier<List<String>> sampler(final BOFHExcuseModel model, final int column, final int size)
+    {
+        return new Supplier<List<String>>() {
+            @Override public List<String> get() {
+                return new BOFHSpinnerWindow(model, column, size, ThreadLocalRandom.current());
+            }
+        };
+    }
+
+    /**
+     * Fetches an entry of the view from the model.
+     *
+     * @param index the position in the view.
+     * @return the entry at that position.
+     * @throws IndexOutOfBoundsException if the position is out of range.
+     * @since 1.0.0.0
+     */
+    @Override public String get(int index)
+    {
+        return column.get(indices[index]);
+    }
+
+    /**
+     * Returns the number of entries in the view.
+     *
+     * @return the size of the view.
+     * @since 1.0.0.0
+     */
+    @Override public int size()
+    {
+        return indices.length;
+    }
+}
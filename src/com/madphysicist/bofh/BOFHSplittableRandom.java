@@ -0,0 +1,203 @@
+/*
+ * BOFHSplittableRandom.java (Class: com.madphysicist.bofh.BOFHSplittableRandom)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Adapts a {@link SplittableRandom} to the {@link Random} interface, so that it
+ * can be used as the source of randomness for an excuse model. Unlike {@code
+ * Random}, this class does not synchronize or perform atomic updates, so every
+ * thread should use its own instance. Instances created with the same seed
+ * produce the same sequence, which makes them suitable for reproducible tests.
+ * Independent instances for parallel tasks can be obtained with {@link
+ * #split()}.
+ *
+ * @see BOFHExcuseModel#getRandomExcuse(Random)
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @version 1.0.0.1, 16 Oct 2026 - Fixed serialization.
+ * @since 1.0.0.0
+ */
+public class BOFHSplittableRandom extends Random
+{
+    /**
+     * The version ID for serialization.
+     *
+     * @serial Increment the least significant three digits when compatibility
+     * is not compromised by a structural change (e.g. adding a new field with
+     * a sensible default value), and the upper digits when the change makes
+     * serialized versions of of the class incompatible with previous releases.
+     * @since 1.0.0.0
+     */
+    private static final long serialVersionUID = 1000L;
+
+    /**
+     * The generator that supplies all of the random numbers of this object. It
+     * is replaced when the seed of this object is set. {@code SplittableRandom}
+     * is not serializable, so this field is replaced by a seed in the serial
+     * form.
+     *
+     * @see #writeObject(ObjectOutputStream)
+     * @since 1.0.0.0
+     */
+    private transient SplittableRandom splittable;
+
+    /**
+     * Creates a generator with a seed that is likely to be different from that
+     * of any other instance.
+     *
+     * @since 1.0.0.0
+     */
+    public BOFHSplittableRandom()
+    {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a generator with the specified seed. Two generators created with
+     * the same seed will produce the same sequence of values.
+     *
+     * @param seed the initial seed.
+     * @since 1.0.0.0
+     */
+    public BOFHSplittableRandom(long seed)
+    {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a generator that wraps the specified splittable generator. The
+     * splittable generator should not be used elsewhere after this call.
+     *
+     * @param splittable the generator to wrap.
+     * @since 1.0.0.0
+     */
+    public BOFHSplittableRandom(SplittableRandom splittable)
+    {
+        super(0L);
+        this.splittable = splittable;
+    }
+
+    /**
+     * Creates a new generator that shares no mutable state with this one. The
+     * values produced by the two generators are statistically independent. The
+     * new generator is meant to be handed off to another thread or task.
+     *
+     * @return a new, independent generator.
+     * @since 1.0.0.0
+     */
+    public BOFHSplittableRandom split()
+    {
+        return new BOFHSplittableRandom(splittable.split());
+    }
+
+    /**
+     * Resets the generator to a sequence determined by the specified seed.
+     * This method is invoked by the constructor of the superclass, before the
+     * wrapped generator is set, in which case it has no effect.
+     *
+     * @param seed the new seed.
+     * @since 1.0.0.0
+     */
+    @Override public void setSeed(long seed)
+    {
+        if(splittable != null)
+            splittable = new SplittableRandom(seed);
+    }
+
+    /**
+     * Writes this generator to a stream. A seed is drawn from the wrapped
+     * generator, and this generator is reseeded with it before it is written.
+     * The original and the deserialized copy therefore continue with the same
+     * sequence of values.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if the stream could not be written.
+     * @serialData The fields of {@code Random}, followed by the seed of the
+     * wrapped generator as a {@code long}.
+     * @since 1.0.0.1
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        long seed = splittable.nextLong();
+        splittable = new SplittableRandom(seed);
+        out.defaultWriteObject();
+        out.writeLong(seed);
+    }
+
+    /**
+     * Reads this generator from a stream, and recreates the wrapped generator
+     * from the seed that was written with it.
+     *
+     * @param in the stream to read from.
+     * @throws IOException if the stream could not be read.
+     * @throws ClassNotFoundException if a class of the serialized object could
+     * not be found.
+     * @since 1.0.0.1
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        splittable = new SplittableRandom(in.readLong());
+    }
+
+    @Override protected int next(int bits)
+    {
+        return splittable.nextInt() >>> (32 - bits);
+    }
+
+    @Override public int nextInt()
+    {
+        return splittable.nextInt();
+    }
+
+    @Override public int nextInt(int bound)
+    {
+        return splittable.nextInt(bound);
+    }
+
+    @Override public long nextLong()
+    {
+        return splittable.nextLong();
+    }
+
+    @Override public double nextDouble()
+    {
+        return splittable.nextDouble();
+    }
+
+    @Override public boolean nextBoolean()
+    {
+        return splittable.nextBoolean();
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * BOFHWordIndex.java (Class: com.madphysicist.bofh.BOFHWordIndex)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * An inverted index from words to the entries of each column of a {@link
+ * BOFHExcuseModel} that contain them. The index is used to find the excuses
+ * that mention any of a set of search terms without enumerating the product
+ * of the columns.
+ * <p>
+ * Words are maximal runs of letters and digits, compared without regard to
+ * case. A search term matches an entry if the entry contains every word of the
+ * term. An excuse matches a set of terms if any of its entries matches any of
+ * the terms. The matching excuses are divided into disjoint blocks by the
+ * first column with a matching entry: the columns before it take only entries
+ * that do not match, and the columns after it take any entry. Each block is a
+ * product of per-column entry lists, so the number of matches can be computed
+ * exactly by multiplying the sizes of the lists, and the matches themselves
+ * can be enumerated block by block.
+ * <p>
+ * This class is not part of the public API.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0.0, 16 Oct 2026
+ * @since 1.0.0.0
+ */
+final class BOFHWordIndex
+{
+    /**
+     * An empty list of entries.
+     *
+     * @since 1.0.0.0
+     */
+    private static final int[] NONE = new int[0];
+
+    /**
+     * The sorted entries of each column that contain each word.
+     *
+     * @since 1.0.0.0
+     */
+    private final Map<String, int[]>[] postings;
+
+    /**
+     * The number of entries in each column.
+     *
+     * @since 1.0.0.0
+     */
+    private final int[] sizes;
+
+    /**
+     * Builds the index for a set of columns. Every entry is decoded and split
+     * into words once.
+     *
+     * @param columns the columns to index.
+     * @since 1.0.0.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    BOFHWordIndex(BOFHPhraseColumn[] columns)
+    {
+        this.postings = new Map[columns.length];
+        this.sizes = new int[columns.length];
+        for(int column = 0; column < columns.length; column++) {
+            BOFHPhraseColumn phrases = columns[column];
+            sizes[column] = phrases.size();
+
+            // Each list holds its size in the first element while it grows.
+            Map<String, int[]> lists = new HashMap<>();
+            for(int entry = 0; entry < phrases.size(); entry++) {
+                for(String word : tokenize(phrases.get(entry))) {
+                    int[] list = lists.get(word);
+                    if(list == null) {
+                        list = new int[4];
+                        lists.put(word, list);
+                    } else if(list[list[0]] == entry) {
+                        continue;
+                    } else if(list[0] + 1 == list.length) {
+                        list = Arrays.copyOf(list, 2 * list.length);
+                        lists.put(word, list);
+                    }
+                    list[++list[0]] = entry;
+                }
+            }
+
+            Map<String, int[]> trimmed = new HashMap<>(2 * lists.size());
+            for(Map.Entry<String, int[]> list : lists.entrySet())
+                trimmed.put(list.getKey(), Arrays.copyOfRange(list.getValue(), 1, list.getValue()[0] + 1));
+            postings[column] = trimmed;
+        }
+    }
+
+    /**
+     * Splits text into lower case words.
+     *
+     * @param text the text to split. May be {@code null}.
+     * @return the words of the text, in order, possibly with repetitions.
+     * @since 1.0.0.0
+     */
+    static String[] tokenize(String text)
+    {
+        if(text == null)
+            return new String[0];
+        String[] words = new String[8];
+        int count = 0;
+        int length = text.length();
+        int position = 0;
+        while(position < length) {
+            while(position < length && !Character.isLetterOrDigit(text.codePointAt(position)))
+                position += Character.charCount(text.codePointAt(position));
+            int start = position;
+            while(position < length && Character.isLetterOrDigit(text.codePointAt(position)))
+                position += Character.charCount(text.codePointAt(position));
+            if(position > start) {
+                if(count == words.length)
+                    words = Arrays.copyOf(words, 2 * count);
+                words[count++] = text.substring(start, position).toLowerCase(Locale.ROOT);
+            }
+        }
+        return Arrays.copyOf(words, count);
+    }
+
+    /**
+     * Finds the entries of a column that match any of the specified terms.
+     *
+     * @param column the index of the column.
+     * @param terms the search terms.
+     * @return the sorted indices of the matching entries.
+     * @since 1.0.0.0
+     */
+    int[] match(int column, String[] terms)
+    {
+        int[] result = NONE;
+        for(String term : terms) {
+            String[] words = tokenize(term);
+            if(words.length == 0)
+                continue;
+            int[] entries = null;
+            for(String word : words) {
+                int[] list = postings[column].get(word);
+                entries = (list == null) ? NONE : (entries == null) ? list : intersect(entries, list);
+            }
+            result = union(result, entries);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the excuses that contain at least one matching entry. This is the
+     * total number of excuses, less the number made up entirely of entries
+     * that do not match.
+     *
+     * @param matches the matching entries of each column.
+     * @return the number of matching excuses.
+     * @throws ArithmeticException if the number of excuses exceeds {@code
+     * Long.MAX_VALUE}.
+     * @since 1.0.0.0
+     */
+    long count(int[][] matches)
+    {
+        long total = 1L;
+        long missing = 1L;
+        for(int column = 0; column < sizes.length; column++) {
+            total = Math.multiplyExact(total, sizes[column]);
+            missing *= sizes[column] - matches[column].length;
+        }
+        return total - missing;
+    }
+
+    /**
+     * Creates a spliterator over the excuses that contain at least one
+     * matching entry. The excuses are generated lazily, block by block.
+     *
+     * @param model the model to create excuses for.
+     * @param matches the matching entries of each column.
+     * @param size the number of matching excuses, or a negative number if it
+     * is too large to be represented.
+     * @return a spliterator over the matching excuses.
+     * @since 1.0.0.0
+     */
+    Spliterator<BOFHExcuse> spliterator(BOFHExcuseModel model, int[][] matches, long size)
+    {
+        return new MatchSpliterator(model, matches, size);
+    }
+
+    /**
+     * Computes the intersection of two sorted lists.
+     *
+     * @param first the first list.
+     * @param second the second list.
+     * @return the elements that appear in both lists, sorted.
+     * @since 1.0.0.0
+     */
+    private static int[] intersect(int[] first, int[] second)
+    {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        for(int i = 0, j = 0; i < first.length && j < second.length; ) {
+            if(first[i] < second[j])
+                i++;
+            else if(first[i] > second[j])
+                j++;
+            else {
+                result[count++] = first[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Computes the union of two sorted lists.
+     *
+     * @param first the first list.
+     * @param second the second list.
+     * @return the elements that appear in either list, sorted.
+     * @since 1.0.0.0
+     */
+    private static int[] union(int[] first, int[] second)
+    {
+        if(first.length == 0)
+            return second;
+        int[] result = new int[first.length + second.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while(i < first.length || j < second.length) {
+            if(j == second.length || (i < first.length && first[i] < second[j]))
+                result[count++] = first[i++];
+            else if(i == first.length || second[j] < first[i])
+                result[count++] = second[j++];
+            else {
+                result[count++] = first[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Computes the entries of a column that do not appear in a sorted list.
+     *
+     * @param size the number of entries in the column.
+     * @param entries the sorted entries to exclude.
+     * @return the remaining entries, sorted.
+     * @since 1.0.0.0
+     */
+    private static int[] complement(int size, int[] entries)
+    {
+        int[] result = new int[size - entries.length];
+        int count = 0;
+        int next = 0;
+        for(int entry = 0; entry < size; entry++) {
+            if(next < entries.length && entries[next] == entry)
+                next++;
+            else
+                result[count++] = entry;
+        }
+        return result;
+    }
+
+    /**
+     * Enumerates the matching excuses one block at a time. Within a block,
+     * each column iterates over its list of allowed entries like the digits of
+     * an odometer, with the last column varying the fastest.
+     *
+     * @since 1.0.0.0
+     */
+    private final class MatchSpliterator implements Spliterator<BOFHExcuse>
+    {
+        private final BOFHExcuseModel model;
+        private final int[][] matches;
+        private final int[][] others;
+        private long remaining;
+        private final int[][] block;
+        private final int[] digits;
+        private int first;
+        private boolean exhausted;
+
+        MatchSpliterator(BOFHExcuseModel model, int[][] matches, long size)
+        {
+            this.model = model;
+            this.matches = matches;
+            this.others = new int[matches.length][];
+            for(int column = 0; column < matches.length; column++)
+                others[column] = complement(sizes[column], matches[column]);
+            this.remaining = size;
+            this.block = new int[matches.length][];
+            this.digits = new int[matches.length];
+            this.first = -1;
+            nextBlock();
+        }
+
+        /**
+         * Advances to the next non-empty block, resetting the digits.
+         */
+        private void nextBlock()
+        {
+            while(++first < matches.length) {
+                boolean empty = false;
+                for(int column = 0; column < block.length; column++) {
+                    if(column < first)
+                        block[column] = others[column];
+                    else if(column == first)
+                        block[column] = matches[column];
+                    else
+                        block[column] = null;
+                    int length = (block[column] == null) ? sizes[column] : block[column].length;
+                    empty |= (length == 0);
+                    digits[column] = 0;
+                }
+                if(!empty)
+                    return;
+            }
+            exhausted = true;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super BOFHExcuse> action)
+        {
+            if(exhausted)
+                return false;
+
+            int[] indices = new int[digits.length];
+            for(int column = 0; column < digits.length; column++)
+                indices[column] = (block[column] == null) ? digits[column] : block[column][digits[column]];
+            action.accept(new BOFHExcuse(model, indices));
+            if(remaining > 0L)
+                remaining--;
+
+            int column = digits.length - 1;
+            while(column >= 0) {
+                int length = (block[column] == null) ? sizes[column] : block[column].length;
+                if(++digits[column] < length)
+                    break;
+                digits[column--] = 0;
+            }
+            if(column < 0)
+                nextBlock();
+            return true;
+        }
+
+        @Override public Spliterator<BOFHExcuse> trySplit()
+        {
+            return null;
+        }
+
+        @Override public long estimateSize()
+        {
+            return (remaining < 0L) ? Long.MAX_VALUE : remaining;
+        }
+
+        @Override public int characteristics()
+        {
+            int characteristics = ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+            return (remaining < 0L) ? characteristics : characteristics | SIZED;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * BOFHBatchWriterTest.java (TestClass: com.madphysicist.bofh.BOFHBatchWriterTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHBatchWriter}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHBatchWriterTest
+{
+    @Test
+    public void testBatchWriter() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS);
+        long count = 3L * BOFHBatchWriter.CHUNK_SIZE + 7L;
+
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        new BOFHBatchWriter(model, BOFHBatchWriter.Format.PLAIN).write(
+                Channels.newChannel(sequential), count, new BOFHSplittableRandom(7L), 1);
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        new BOFHBatchWriter(model, BOFHBatchWriter.Format.PLAIN).write(
+                Channels.newChannel(parallel), count, new BOFHSplittableRandom(7L), 4);
+
+        String[] lines = new String(sequential.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(lines.length, count);
+        Assert.assertEquals(parallel.toByteArray(), sequential.toByteArray());
+        Set<String> excuses = model.excuseStream().map(BOFHExcuse::toString).collect(Collectors.toSet());
+        for(String line : lines)
+            Assert.assertTrue(excuses.contains(line), line);
+    }
+
+    @Test
+    public void testBatchWriterEscaping() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {{"say \"hi\""}, {"a\\b"}});
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new BOFHBatchWriter(model, BOFHBatchWriter.Format.JSON).write(
+                Channels.newChannel(json), 1L, new BOFHSplittableRandom(), 1);
+        Assert.assertEquals(new String(json.toByteArray(), StandardCharsets.UTF_8),
+                "{\"excuse\":\"say \\\"hi\\\" a\\\\b\"}\n");
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        new BOFHBatchWriter(model, BOFHBatchWriter.Format.CSV).write(
+                Channels.newChannel(csv), 1L, new BOFHSplittableRandom(), 1);
+        Assert.assertEquals(new String(csv.toByteArray(), StandardCharsets.UTF_8), "\"say \"\"hi\"\" a\\b\"\n");
+    }
+}
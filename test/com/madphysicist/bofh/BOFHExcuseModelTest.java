@@ -0,0 +1,532 @@
+/*
+ * BOFHExcuseModelTest.java (TestClass: com.madphysicist.bofh.BOFHExcuseModelTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHExcuseModel}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHExcuseModelTest
+{
+    /**
+     * A small model with null and empty entries, shared by the tests of the
+     * classes that operate on a model.
+     */
+    static final String[][] COLUMNS = new String[][] {
+        {"A1", "A2", "A3"},
+        {"B1", null},
+        {"C1", "C2", "", "C4"},
+    };
+
+    @Test(dataProvider = "indexDataProvider")
+    public void testGetExcuse(String label, int[] indices, String expectedOutput)
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        BOFHExcuse excuse = model.getExcuse(indices);
+        Assert.assertSame(excuse.getModel(), model);
+        Assert.assertEquals(excuse.getIndices(), indices);
+        Assert.assertEquals(excuse.toString(), expectedOutput);
+        Assert.assertEquals(excuse.toString(), new BOFHExcuse(excuse.getComponents()).toString());
+    }
+
+    @DataProvider(name = "indexDataProvider")
+    private Object[][] indexDataProvider()
+    {
+        return new Object[][] {
+            {"normal",      new int[] {0, 0, 0}, "A1 B1 C1"},
+            {"null middle", new int[] {1, 1, 3}, "A2 C4"},
+            {"empty last",  new int[] {2, 0, 2}, "A3 B1 "},
+        };
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testGetExcuseBadIndex()
+    {
+        new BOFHExcuseModel(COLUMNS).getExcuse(new int[] {0, 2, 0});
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testGetExcuseBadLength()
+    {
+        new BOFHExcuseModel(COLUMNS).getExcuse(new int[] {0, 0});
+    }
+
+    @Test public void testGetExcuseCopiesIndices()
+    {
+        int[] indices = new int[] {0, 0, 0};
+        BOFHExcuse excuse = new BOFHExcuseModel(COLUMNS).getExcuse(indices);
+        indices[0] = 2;
+        Assert.assertEquals(excuse.toString(), "A1 B1 C1");
+    }
+
+    @Test public void testGetRandomIndices()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        int[] indices = new int[model.getColumnCount()];
+        for(int i = 0; i < 100; i++) {
+            Assert.assertSame(model.getRandomIndices(indices), indices);
+            for(int column = 0; column < indices.length; column++) {
+                Assert.assertTrue(indices[column] >= 0);
+                Assert.assertTrue(indices[column] < COLUMNS[column].length);
+            }
+            Assert.assertEquals(model.getExcuse(indices).getComponents(),
+                                Arrays.asList(COLUMNS[0][indices[0]],
+                                              COLUMNS[1][indices[1]],
+                                              COLUMNS[2][indices[2]]));
+        }
+    }
+
+    @Test public void testWriteRandomExcuses() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        Set<String> allExcuses = new HashSet<>();
+        for(int a = 0; a < COLUMNS[0].length; a++)
+            for(int b = 0; b < COLUMNS[1].length; b++)
+                for(int c = 0; c < COLUMNS[2].length; c++)
+                    allExcuses.add(model.getExcuse(new int[] {a, b, c}).toString());
+
+        StringBuilder sb = new StringBuilder();
+        model.writeRandomExcuses(sb, 1000);
+        String[] lines = sb.toString().split("\n", -1);
+        Assert.assertEquals(lines.length, 1001);
+        Assert.assertEquals(lines[1000], "");
+        for(int i = 0; i < 1000; i++)
+            Assert.assertTrue(allExcuses.contains(lines[i]), lines[i]);
+    }
+
+    @Test public void testSeededRandomExcuses() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        model.writeRandomExcuses(first, 100, new BOFHSplittableRandom(12345L));
+        model.writeRandomExcuses(second, 100, new BOFHSplittableRandom(12345L));
+        Assert.assertEquals(first.toString(), second.toString());
+
+        BOFHSplittableRandom random1 = new BOFHSplittableRandom(6789L);
+        BOFHSplittableRandom random2 = new BOFHSplittableRandom(6789L);
+        for(int i = 0; i < 100; i++)
+            Assert.assertEquals(model.getRandomExcuse(random1).getIndices(),
+                                model.getRandomExcuse(random2).getIndices());
+    }
+
+    @Test public void testNonAsciiText() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {
+            {"h\u00e9llo", "\u65e5\u672c", "\ud834\udd1e clef", null},
+            {"plain", "caf\u00e9 \ud83d\ude00"},
+        });
+        StringBuilder expected = new StringBuilder();
+        List<BOFHExcuse> excuses = model.excuseStream().collect(Collectors.toList());
+        for(BOFHExcuse excuse : excuses) {
+            String text = String.join(" ", excuse.getComponents().stream()
+                    .filter(component -> component != null).collect(Collectors.toList()));
+            Assert.assertEquals(excuse.toString(), text);
+            Assert.assertEquals(model.getExcuseLength(excuse.getIndexArray()), text.length());
+            expected.append(text).append('\n');
+        }
+        StringBuilder actual = new StringBuilder();
+        model.writeRandomExcuses(actual, 0L);
+        for(BOFHExcuse excuse : excuses) {
+            StringWriter writer = new StringWriter();
+            model.writeRandomExcuses(writer, 1L, new Random() {
+                private static final long serialVersionUID = 1000L;
+                private int call;
+                @Override public int nextInt(int bound) {
+                    return excuse.getIndexArray()[call++];
+                }
+            });
+            actual.append(writer);
+        }
+        Assert.assertEquals(actual.toString(), expected.toString());
+    }
+
+    @Test public void testExcuseStream()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        List<String> sequential = model.excuseStream().map(BOFHExcuse::toString).collect(Collectors.toList());
+        List<String> parallel = model.parallelExcuseStream().map(BOFHExcuse::toString).collect(Collectors.toList());
+        Assert.assertEquals(sequential.size(), 3 * 2 * 4);
+        Assert.assertEquals(parallel, sequential);
+        Assert.assertEquals(sequential.get(0), "A1 B1 C1");
+        Assert.assertEquals(sequential.get(1), "A1 B1 C2");
+        Assert.assertEquals(sequential.get(4), "A1 C1");
+        Assert.assertEquals(sequential.get(23), "A3 C4");
+
+        List<BOFHExcuse> skipped = model.excuseStream().skip(5).limit(1).collect(Collectors.toList());
+        Assert.assertEquals(skipped.get(0).getIndices(), new int[] {0, 1, 1});
+    }
+
+    @Test public void testRandomExcuseStream()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        Assert.assertEquals(model.parallelRandomExcuseStream(10000).count(), 10000L);
+        Assert.assertEquals(model.randomExcuseStream().limit(10).count(), 10L);
+
+        List<String> first = model.randomExcuseStream(100, new BOFHSplittableRandom(1L))
+                .map(BOFHExcuse::toString).collect(Collectors.toList());
+        List<String> second = model.randomExcuseStream(100, new BOFHSplittableRandom(1L))
+                .map(BOFHExcuse::toString).collect(Collectors.toList());
+        Assert.assertEquals(first, second);
+    }
+
+    @Test public void testRank()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        Assert.assertEquals(model.size(), 24L);
+        List<BOFHExcuse> excuses = model.excuseStream().collect(Collectors.toList());
+        int[] indices = new int[model.getColumnCount()];
+        for(int rank = 0; rank < excuses.size(); rank++) {
+            Assert.assertEquals(model.rankOf(excuses.get(rank)), rank);
+            Assert.assertEquals(model.getExcuse((long)rank).getIndices(), excuses.get(rank).getIndices());
+            Assert.assertEquals(model.getIndices(rank, indices), excuses.get(rank).getIndices());
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testRankOutOfBounds()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        model.getExcuse(model.size());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRankOfForeignExcuse()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(COLUMNS);
+        new BOFHExcuseModel(COLUMNS).rankOf(model.getExcuse(0L));
+    }
+
+    @Test public void testLoadPathsMatchesResources() throws IOException
+    {
+        String[] names = new String[] {"A", "B", "C", "D"};
+        Path[] paths = new Path[names.length];
+        for(int index = 0; index < names.length; index++) {
+            paths[index] = Files.createTempFile("bofh", names[index]);
+            paths[index].toFile().deleteOnExit();
+            try(InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream(names[index])) {
+                Files.copy(stream, paths[index], StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        BOFHPhraseColumn[] expected = BOFHExcuseModel.loadFiles(names);
+        BOFHPhraseColumn[] actual = BOFHExcuseModel.loadPaths(paths, StandardCharsets.UTF_8);
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test(dataProvider = "charsetDataProvider")
+    public void testLoadPathsCharset(String label, Charset charset) throws IOException
+    {
+        String contents = "# comment\n\n  \u00e9t\u00e9 solaire \r\n\t#also comment\nlast line";
+        Path path = Files.createTempFile("bofh", label);
+        path.toFile().deleteOnExit();
+        Files.write(path, contents.getBytes(charset));
+        BOFHPhraseColumn[] columns = BOFHExcuseModel.loadPaths(new Path[] {path}, charset);
+        Assert.assertEquals(columns.length, 1);
+        Assert.assertEquals(columns[0], Arrays.asList("\u00e9t\u00e9 solaire", "last line"));
+    }
+
+    @DataProvider(name = "charsetDataProvider")
+    private Object[][] charsetDataProvider()
+    {
+        return new Object[][] {
+            {"UTF-8",      StandardCharsets.UTF_8},
+            {"ISO-8859-1", StandardCharsets.ISO_8859_1},
+            {"UTF-16",     StandardCharsets.UTF_16},
+        };
+    }
+
+    @Test(dataProvider = "charsetDataProvider")
+    public void testLoadPathsWeights(String label, Charset charset) throws IOException
+    {
+        String contents = "plain\nheavy | 3\nlight|0.5\nnot|a weight\n|2\nzero |0\n";
+        Path path = Files.createTempFile("bofh", label);
+        path.toFile().deleteOnExit();
+        Files.write(path, contents.getBytes(charset));
+        BOFHExcuseModel model = new BOFHExcuseModel(new Path[] {path}, charset);
+        Assert.assertEquals(model.getColumn(0), Arrays.asList("plain", "heavy", "light", "not|a weight", "|2", "zero"));
+        double[] expected = new double[] {1.0, 3.0, 0.5, 1.0, 1.0, 0.0};
+        for(int index = 0; index < expected.length; index++)
+            Assert.assertEquals(model.getWeight(0, index), expected[index]);
+    }
+
+    @Test public void testWeightedSampling()
+    {
+        double[] weights = new double[] {0.0, 1.0, 3.0, 0.0, 4.0};
+        BOFHExcuseModel model = new BOFHExcuseModel(
+                new String[][] {{"W0", "W1", "W3", "Z", "W4"}, {"X"}},
+                new double[][] {weights, null});
+        int[] counts = new int[weights.length];
+        Random random = new BOFHSplittableRandom(11L);
+        int samples = 80000;
+        for(int i = 0; i < samples; i++)
+            counts[model.getRandomIndices(null, random)[0]]++;
+        for(int index = 0; index < weights.length; index++)
+            Assert.assertEquals(counts[index] / (double)samples, weights[index] / 8.0, 0.01, "Index " + index);
+        Assert.assertEquals(model.getWeight(1, 0), 1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWeightsAllZero()
+    {
+        new BOFHExcuseModel(new String[][] {{"A", "B"}}, new double[][] {{0.0, 0.0}});
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWeightsNegative()
+    {
+        new BOFHExcuseModel(new String[][] {{"A", "B"}}, new double[][] {{1.0, -1.0}});
+    }
+
+    @Test(dataProvider = "weightCountDataProvider", expectedExceptions = IllegalArgumentException.class)
+    public void testWeightsCount(String label, double[] weights)
+    {
+        new BOFHExcuseModel(new String[][] {{"a", "b", "c"}}, new double[][] {weights});
+    }
+
+    @DataProvider(name = "weightCountDataProvider")
+    private Object[][] weightCountDataProvider()
+    {
+        return new Object[][] {
+            {"uniform short", new double[] {1.0}},
+            {"weighted short", new double[] {2.0}},
+            {"uniform long", new double[] {1.0, 1.0, 1.0, 1.0}},
+        };
+    }
+
+    @Test public void testCompactColumns()
+    {
+        StringBuilder longPhrase = new StringBuilder();
+        for(int i = 0; i < 100; i++)
+            longPhrase.append("\u00e9\u20ac");
+        String[][] columns = new String[][] {
+            {"plain", null, "", longPhrase.toString()},
+            {"caf\u00e9", "\ud83d\udca5"},
+        };
+        BOFHExcuseModel model = new BOFHExcuseModel(columns);
+        for(int column = 0; column < columns.length; column++)
+            Assert.assertEquals(model.getColumn(column), Arrays.asList(columns[column]));
+        Assert.assertEquals(model.getExcuse(new int[] {3, 1}).toString(), longPhrase + " \ud83d\udca5");
+        Assert.assertEquals(model.getExcuse(new int[] {1, 0}).toString(), "caf\u00e9");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testCompactColumnsUnmodifiable()
+    {
+        new BOFHExcuseModel(COLUMNS).getColumn(0).set(0, "X");
+    }
+
+    @Test public void testWriteRandomExcusesBytes() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {{"\u00e9t\u00e9"}, {null}, {"solaire"}});
+        ByteBuffer buffer = ByteBuffer.allocate(45);
+        Assert.assertEquals(model.writeRandomExcuses(buffer, 10), 3L);
+        Assert.assertEquals(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                            "\u00e9t\u00e9 solaire\n\u00e9t\u00e9 solaire\n\u00e9t\u00e9 solaire\n");
+    }
+
+    /**
+     * Entries ending in "s" are plural and entries ending in "!" are dead
+     * ends. Plural entries in the first column may only be followed by plural
+     * entries, and dead ends are compatible with nothing.
+     */
+    private static final BOFHExcuseConstraint PLURAL_CONSTRAINT = new BOFHExcuseConstraint() {
+        @Override public int classify(int column, String phrase) {
+            if(phrase.endsWith("!"))
+                return 2;
+            return phrase.endsWith("s") ? 1 : 0;
+        }
+        @Override public boolean isCompatible(int column, int leftClass, int rightClass) {
+            return leftClass != 2 && rightClass != 2 && (column > 0 || leftClass == 0 || rightClass == 1);
+        }
+    };
+
+    @Test public void testConstraint()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {
+            {"dog", "dogs", "cat", "oops!"},
+            {"barks", "bark", "meows"},
+            {"loudly", "softly!"},
+        }).withConstraint(PLURAL_CONSTRAINT);
+        Assert.assertTrue(model.isConstrained());
+
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new BOFHSplittableRandom(3L);
+        int samples = 50000;
+        for(int i = 0; i < samples; i++) {
+            int[] indices = model.getRandomIndices(null, random);
+            Assert.assertTrue(model.isAllowed(indices), Arrays.toString(indices));
+            String text = model.getExcuse(indices).toString();
+            Integer count = counts.get(text);
+            counts.put(text, (count == null) ? 1 : count + 1);
+        }
+
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "dog barks loudly", "dog bark loudly", "dog meows loudly",
+                "cat barks loudly", "cat bark loudly", "cat meows loudly",
+                "dogs barks loudly", "dogs meows loudly"));
+        Assert.assertEquals(counts.keySet(), expected);
+        for(int count : counts.values())
+            Assert.assertEquals(count / (double)samples, 1.0 / expected.size(), 0.01);
+
+        Assert.assertFalse(model.isAllowed(new int[] {1, 1, 0}));
+        Assert.assertFalse(model.isAllowed(new int[] {0, 0, 1}));
+        Assert.assertTrue(model.withConstraint(null).isAllowed(new int[] {1, 1, 0}));
+    }
+
+    @Test public void testConstraintWeighted()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(
+                new String[][] {{"dog", "dogs"}, {"bark", "barks"}},
+                new double[][] {{1.0, 3.0}, {1.0, 1.0}}).withConstraint(PLURAL_CONSTRAINT);
+        int[] counts = new int[3];
+        Random random = new BOFHSplittableRandom(5L);
+        int samples = 50000;
+        for(int i = 0; i < samples; i++) {
+            int[] indices = model.getRandomIndices(null, random);
+            counts[indices[0] + indices[1]]++;
+        }
+        // dog bark and dog barks have weight 1, dogs barks has weight 3.
+        Assert.assertEquals(counts[0] / (double)samples, 0.2, 0.01);
+        Assert.assertEquals(counts[2] / (double)samples, 0.6, 0.01);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstraintUnsatisfiable()
+    {
+        new BOFHExcuseModel(new String[][] {{"oops!"}, {"A", "B"}}).withConstraint(PLURAL_CONSTRAINT);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testDeduplicateConstrained()
+    {
+        new BOFHExcuseModel(new String[][] {
+            {"dog", "dogs", "dog"},
+            {"barks", "bark"},
+            {"loudly"},
+        }).withConstraint(PLURAL_CONSTRAINT).deduplicate(false);
+    }
+
+    @Test public void testDeduplicate()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(
+                new String[][] {{"A", "B", "A", null, "\u00e9t\u00e9", null, "B"}, {"B", "C", "C"}},
+                new double[][] {{2.0, 1.0, 5.0, 1.0, 1.0, 1.0, 1.0}, null});
+        BOFHDeduplication result = model.deduplicate(false);
+        BOFHExcuseModel copy = result.getModel();
+        Assert.assertEquals(copy.getColumn(0), Arrays.asList("A", "B", null, "\u00e9t\u00e9"));
+        Assert.assertEquals(copy.getColumn(1), Arrays.asList("B", "C"));
+        Assert.assertEquals(copy.getWeight(0, 0), 2.0);
+        Assert.assertEquals(result.getRemovedEntries(), 4);
+        Assert.assertEquals(result.getRemovedBytes(), 2 + 2 + 1 + 2L);
+        Assert.assertEquals(copy.getExcuse(new int[] {3, 0}).toString(), "\u00e9t\u00e9 B");
+    }
+
+    @Test public void testDeduplicateIntern() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel();
+        BOFHDeduplication result = model.deduplicate(true);
+        BOFHExcuseModel copy = result.getModel();
+        int removed = 0;
+        for(int column = 0; column < model.getColumnCount(); column++) {
+            List<String> distinct = model.getColumn(column).stream().distinct().collect(Collectors.toList());
+            Assert.assertEquals(copy.getColumn(column), distinct);
+            removed += model.getColumn(column).size() - distinct.size();
+        }
+        Assert.assertEquals(result.getRemovedEntries(), removed);
+        Assert.assertTrue(result.getRemovedBytes() > 0L);
+        Assert.assertSame(((BOFHPhraseColumn)copy.getColumn(0)).getData(),
+                          ((BOFHPhraseColumn)copy.getColumn(3)).getData());
+    }
+
+    @Test public void testFindMatches()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {
+            {"Solar flares", "Dusty router", "Cosmic rays", null},
+            {"in the router", "near SOLAR panels", "somewhere"},
+            {"again", "router-related solar noise"},
+        });
+        String[][] queries = new String[][] {
+            {"solar"}, {"router"}, {"solar", "router"}, {"solar panels"}, {"ROUTER", "cosmic"}, {"missing"}, {},
+        };
+        for(String[] query : queries) {
+            List<String> expected = model.excuseStream()
+                    .filter(excuse -> mentions(excuse, query))
+                    .map(BOFHExcuse::toString).sorted().collect(Collectors.toList());
+            List<String> actual = model.findMatches(query)
+                    .map(BOFHExcuse::toString).sorted().collect(Collectors.toList());
+            Assert.assertEquals(actual, expected, Arrays.toString(query));
+            Assert.assertEquals(model.countMatches(query), expected.size(), Arrays.toString(query));
+        }
+    }
+
+    @Test public void testCountMatchesLarge() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel();
+        long expected = model.excuseStream().filter(excuse -> mentions(excuse, new String[] {"static", "non"})).count();
+        Assert.assertTrue(expected > 0L);
+        Assert.assertEquals(model.countMatches("static", "non"), expected);
+        Assert.assertEquals(model.findMatches("static", "non").count(), expected);
+    }
+
+    private static boolean mentions(BOFHExcuse excuse, String[] terms)
+    {
+        for(String component : excuse.getComponents()) {
+            if(component == null)
+                continue;
+            List<String> words = Arrays.asList(component.toLowerCase().split("[^\\p{L}\\p{N}]+"));
+            for(String term : terms)
+                if(words.containsAll(Arrays.asList(term.toLowerCase().split(" "))))
+                    return true;
+        }
+        return false;
+    }
+}
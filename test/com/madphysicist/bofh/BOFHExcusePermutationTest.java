@@ -0,0 +1,84 @@
+/*
+ * BOFHExcusePermutationTest.java (TestClass: com.madphysicist.bofh.BOFHExcusePermutationTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHExcusePermutation}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHExcusePermutationTest
+{
+    @Test(dataProvider = "permutationDataProvider")
+    public void testExcusePermutation(String label, int partitionCount)
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS);
+        int size = (int)model.size();
+        boolean[] seen = new boolean[size];
+        for(int partition = 0; partition < partitionCount; partition++) {
+            BOFHExcusePermutation permutation = new BOFHExcusePermutation(model, 99L, partition, partitionCount);
+            for(int draw = partition; draw < size; draw += partitionCount) {
+                int rank = (int)permutation.nextRank();
+                Assert.assertFalse(seen[rank], "Rank " + rank + " repeated");
+                seen[rank] = true;
+            }
+        }
+        for(int rank = 0; rank < size; rank++)
+            Assert.assertTrue(seen[rank], "Rank " + rank + " missing");
+    }
+
+    @DataProvider(name = "permutationDataProvider")
+    private Object[][] permutationDataProvider()
+    {
+        return new Object[][] {
+            {"single", 1},
+            {"even",   4},
+            {"uneven", 5},
+        };
+    }
+
+    @Test public void testExcusePermutationCycles()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS);
+        BOFHExcusePermutation permutation = model.getExcusePermutation(7L);
+        for(int cycle = 0; cycle < 3; cycle++) {
+            Set<Long> ranks = new HashSet<>();
+            for(int draw = 0; draw < model.size(); draw++)
+                ranks.add(model.rankOf(permutation.next()));
+            Assert.assertEquals(ranks.size(), 24);
+        }
+    }
+}
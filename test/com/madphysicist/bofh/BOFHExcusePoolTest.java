@@ -0,0 +1,70 @@
+/*
+ * BOFHExcusePoolTest.java (TestClass: com.madphysicist.bofh.BOFHExcusePoolTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHExcusePool}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHExcusePoolTest
+{
+    @Test(timeOut = 20000)
+    public void testExcusePool() throws InterruptedException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS);
+        Set<String> excuses = model.excuseStream().map(BOFHExcuse::toString).collect(Collectors.toSet());
+        try(BOFHExcusePool pool = new BOFHExcusePool(model, 50, 10)) {
+            Assert.assertEquals(pool.getCapacity(), 64);
+            while(pool.size() < pool.getCapacity())
+                Thread.sleep(10L);
+            for(int count = 0; count < 1000; count++) {
+                BOFHExcuse excuse = pool.take();
+                Assert.assertSame(excuse.getModel(), model);
+                Assert.assertTrue(excuses.contains(excuse.toString()), excuse.toString());
+            }
+            while(pool.poll() != null)
+                continue;
+            while(pool.size() < pool.getCapacity())
+                Thread.sleep(10L);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testExcusePoolLowWaterMark()
+    {
+        new BOFHExcusePool(new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS), 16, 16).close();
+    }
+}
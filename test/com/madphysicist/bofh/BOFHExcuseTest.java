@@ -28,6 +28,8 @@
 package com.madphysicist.bofh;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -61,4 +63,33 @@ public class BOFHExcuseTest
             {"multi normal", new String[] {"A", "B", "C"},           "A B C"},
         };
     }
+
+    @Test public void testEqualsIndexed()
+    {
+        String[][] columns = new String[][] {{"A", "B"}, {"C", "D"}};
+        BOFHExcuseModel model = new BOFHExcuseModel(columns);
+        BOFHExcuse excuse = model.getExcuse(new int[] {1, 0});
+        BOFHExcuse same = model.getExcuse(new int[] {1, 0});
+        Assert.assertEquals(same, excuse);
+        Assert.assertEquals(same.hashCode(), excuse.hashCode());
+        Assert.assertNotEquals(model.getExcuse(new int[] {0, 1}), excuse);
+        Assert.assertNotEquals(new BOFHExcuseModel(columns).getExcuse(new int[] {1, 0}), excuse);
+        Assert.assertNotEquals(new BOFHExcuse(excuse.getComponents(), model), excuse);
+        Assert.assertNotEquals(excuse, new BOFHExcuse(excuse.getComponents(), model));
+
+        Set<BOFHExcuse> excuses = new HashSet<>();
+        for(int i = 0; i < 100; i++)
+            excuses.add(model.getRandomExcuse());
+        Assert.assertEquals(excuses.size(), 4);
+    }
+
+    @Test public void testEqualsStandalone()
+    {
+        BOFHExcuse excuse = new BOFHExcuse(Arrays.asList("A", null, "B"));
+        BOFHExcuse same = new BOFHExcuse(Arrays.asList("A", null, "B"));
+        Assert.assertEquals(same, excuse);
+        Assert.assertEquals(same.hashCode(), excuse.hashCode());
+        Assert.assertNotEquals(new BOFHExcuse(Arrays.asList("A", "B")), excuse);
+        Assert.assertEquals(new BOFHExcuse(null), new BOFHExcuse(null));
+    }
 }
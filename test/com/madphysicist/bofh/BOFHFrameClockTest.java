@@ -0,0 +1,78 @@
+/*
+ * BOFHFrameClockTest.java (TestClass: com.madphysicist.bofh.BOFHFrameClockTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHFrameClock}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHFrameClockTest
+{
+    @Test public void testFrameClock()
+    {
+        final List<Rectangle> released = new ArrayList<>();
+        BOFHFrameClock clock = new BOFHFrameClock(30) {
+            @Override void release(JComponent c, Rectangle region) {
+                released.add(region);
+            }
+        };
+        JPanel root = new JPanel();
+        JLabel attached = new JLabel("attached");
+        root.add(attached);
+        clock.attach(root);
+
+        clock.addDirtyRegion(attached, 0, 0, 5, 5);
+        clock.addDirtyRegion(attached, 10, 10, 5, 5);
+        Assert.assertTrue(released.isEmpty());
+        clock.flush();
+        Assert.assertEquals(released, Arrays.asList(new Rectangle(0, 0, 15, 15)));
+
+        released.clear();
+        clock.addDirtyRegion(new JLabel("unattached"), 1, 2, 3, 4);
+        Assert.assertEquals(released, Arrays.asList(new Rectangle(1, 2, 3, 4)));
+        clock.flush();
+        Assert.assertEquals(released.size(), 1);
+
+        clock.detach(root);
+        clock.addDirtyRegion(attached, 0, 0, 1, 1);
+        Assert.assertEquals(released.size(), 2);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * BOFHLatencyHistogramTest.java (TestClass: com.madphysicist.bofh.BOFHLatencyHistogramTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHLatencyHistogram}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHLatencyHistogramTest
+{
+    @Test public void testLatencyHistogram()
+    {
+        BOFHLatencyHistogram histogram = new BOFHLatencyHistogram();
+        Assert.assertEquals(histogram.getQuantile(0.5), 0L);
+        for(long nanos = 0L; nanos < 100L; nanos++)
+            histogram.record(nanos);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(histogram.getCount(), 101L);
+        Assert.assertEquals(histogram.getQuantile(0.5), 64L);
+        Assert.assertEquals(histogram.getCounts()[BOFHLatencyHistogram.BUCKET_COUNT - 1], 1L);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * BOFHMetricsTest.java (TestClass: com.madphysicist.bofh.BOFHMetricsTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHMetrics}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHMetricsTest
+{
+    @Test public void testMetrics() throws Exception
+    {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = BOFHMetrics.register(server);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new BOFHExcuseModel(new String[][] {{"a", "b"}, {"c", "d", "e"}}).writeModel(out);
+            BOFHExcuseModel model = BOFHExcuseModel.readModel(new ByteArrayInputStream(out.toByteArray()));
+            Assert.assertEquals(server.getAttribute(name, "ModelSize"), 6L);
+            Assert.assertEquals(server.getAttribute(name, "ModelEntries"), 5L);
+            // derived models are not the ones being served
+            model.withVersion(2L);
+            new BOFHExcuseModel(new String[][] {{"f"}});
+            Assert.assertEquals(server.getAttribute(name, "ModelSize"), 6L);
+            Random random = new Random(3L);
+            for(int index = 0; index < 100; index++)
+                model.getRandomExcuse(random).toString();
+            model.writeRandomExcuses(new StringBuilder(), 50L, random);
+            Assert.assertEquals(server.getAttribute(name, "ExcusesGenerated"), 150L);
+            Assert.assertEquals(server.getAttribute(name, "RandomExcuseCount"), 100L);
+            Assert.assertEquals(server.getAttribute(name, "ToStringCount"), 100L);
+            long[] histogram = (long[])server.getAttribute(name, "RandomExcuseHistogram");
+            Assert.assertEquals(Arrays.stream(histogram).sum(), 100L);
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            Assert.assertEquals(server.getAttribute(name, "ExcusesGenerated"), 0L);
+        } finally {
+            BOFHMetrics.unregister(server);
+        }
+        Assert.assertFalse(BOFHMetrics.isRecording());
+    }
+}
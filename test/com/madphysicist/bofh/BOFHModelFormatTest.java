@@ -0,0 +1,114 @@
+/*
+ * BOFHModelFormatTest.java (TestClass: com.madphysicist.bofh.BOFHModelFormatTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHModelFormat}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHModelFormatTest
+{
+    @Test public void testBinaryModel() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {
+            {"A1", null, "\u00e9t\u00e9"}, {}, {"C1", ""},
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.writeModel(out);
+        BOFHExcuseModel copy = BOFHExcuseModel.readModel(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(copy.getColumnCount(), model.getColumnCount());
+        for(int column = 0; column < model.getColumnCount(); column++)
+            Assert.assertEquals(copy.getColumn(column), model.getColumn(column));
+    }
+
+    @Test public void testBinaryModelWeights() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS, new double[][] {{1.0, 2.0, 0.0}, null, {0.25, 1.0, 1.0, 1.0}});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.writeModel(out);
+        BOFHExcuseModel copy = BOFHExcuseModel.readModel(new ByteArrayInputStream(out.toByteArray()));
+        for(int column = 0; column < model.getColumnCount(); column++) {
+            Assert.assertEquals(copy.getColumn(column), model.getColumn(column));
+            for(int index = 0; index < model.getColumn(column).size(); index++)
+                Assert.assertEquals(copy.getWeight(column, index), model.getWeight(column, index));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testBinaryModelTruncated() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS).writeModel(out);
+        byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        BOFHExcuseModel.readModel(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(dataProvider = "corruptDataProvider", expectedExceptions = IOException.class)
+    public void testBinaryModelCorrupt(String label, int position, int value, boolean wide) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BOFHExcuseModel(new String[][] {{"abc"}}).writeModel(out);
+        ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+        if(wide)
+            bytes.putInt(position, value);
+        else
+            bytes.put(position, (byte)value);
+        BOFHExcuseModel.readModel(new ByteArrayInputStream(bytes.array()));
+    }
+
+    /**
+     * The model being corrupted has a header of three {@code int}s, one
+     * column header of three more, a single offset at byte 24 and a four byte
+     * arena at byte 28, starting with the length prefix of the phrase.
+     */
+    @DataProvider(name = "corruptDataProvider")
+    private Object[][] corruptDataProvider()
+    {
+        return new Object[][] {
+            {"old version",     4,  2,                 true},
+            {"column count",    8,  Integer.MAX_VALUE, true},
+            {"entry count",     16, Integer.MAX_VALUE, true},
+            {"arena size",      20, Integer.MAX_VALUE, true},
+            {"offset",          24, 4,                 true},
+            {"phrase length",   28, 0x7F,              false},
+            {"unending prefix", 28, 0x80,              false},
+        };
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * BOFHModelWatcherTest.java (TestClass: com.madphysicist.bofh.BOFHModelWatcherTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHModelWatcher}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHModelWatcherTest
+{
+    @Test(timeOut = 20000)
+    public void testModelWatcher() throws IOException, InterruptedException
+    {
+        Path directory = Files.createTempDirectory("bofh");
+        Path file = directory.resolve("column");
+        Files.write(file, "first\n".getBytes(StandardCharsets.UTF_8));
+        try(BOFHModelWatcher watcher = new BOFHModelWatcher(new Path[] {file}, StandardCharsets.UTF_8)) {
+            BOFHExcuse excuse = watcher.getRandomExcuse();
+            Assert.assertEquals(excuse.toString(), "first");
+            Assert.assertEquals(excuse.getModel().getVersion(), 1L);
+            Assert.assertTrue(watcher.isCurrent(excuse));
+
+            Files.write(file, "second\n".getBytes(StandardCharsets.UTF_8));
+            while(watcher.getVersion() == 1L)
+                Thread.sleep(50L);
+
+            Assert.assertFalse(watcher.isCurrent(excuse));
+            Assert.assertEquals(excuse.toString(), "first");
+            Assert.assertEquals(watcher.getRandomExcuse().toString(), "second");
+        } finally {
+            Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void testModelWatcherRecovers() throws IOException, InterruptedException
+    {
+        Path directory = Files.createTempDirectory("bofh");
+        Path file = directory.resolve("column");
+        Files.write(file, "first\n".getBytes(StandardCharsets.UTF_8));
+        try(BOFHModelWatcher watcher = new BOFHModelWatcher(new Path[] {file}, StandardCharsets.UTF_8)) {
+            // a failed reload must not stop the watcher
+            Files.delete(file);
+            Thread.sleep(4 * BOFHModelWatcher.SETTLE_MILLIS);
+            Assert.assertEquals(watcher.getVersion(), 1L);
+
+            Files.write(file, "second\n".getBytes(StandardCharsets.UTF_8));
+            while(watcher.getVersion() == 1L)
+                Thread.sleep(50L);
+            Assert.assertTrue(watcher.getVersion() > 1L);
+            Assert.assertEquals(watcher.getRandomExcuse().toString(), "second");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+}
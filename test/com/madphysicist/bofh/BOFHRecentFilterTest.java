@@ -0,0 +1,80 @@
+/*
+ * BOFHRecentFilterTest.java (TestClass: com.madphysicist.bofh.BOFHRecentFilterTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHRecentFilter}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHRecentFilterTest
+{
+    @Test public void testRecentFilterAvoidsRepeats() throws IOException
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel();
+        BOFHRecentFilter filter = new BOFHRecentFilter(model, 1000, 1e-3);
+        Random random = new Random(42L);
+        Set<BOFHExcuse> seen = new HashSet<>();
+        for(int index = 0; index < 1000; index++) {
+            BOFHExcuse excuse = filter.getRandomExcuse(random);
+            Assert.assertTrue(seen.add(excuse), excuse.toString());
+            Assert.assertTrue(filter.mightContain(excuse));
+        }
+        filter.clear();
+        for(BOFHExcuse excuse : seen)
+            Assert.assertFalse(filter.mightContain(excuse), excuse.toString());
+    }
+
+    @Test public void testRecentFilterSaturated()
+    {
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {{"a", "b"}, {"c", "d"}});
+        BOFHRecentFilter filter = new BOFHRecentFilter(model, 3, 0.01);
+        Random random = new Random(7L);
+        Set<BOFHExcuse> first = new HashSet<>();
+        for(int index = 0; index < 3; index++)
+            first.add(filter.getRandomExcuse(random));
+        Assert.assertEquals(first.size(), 3);
+        for(int index = 0; index < 100; index++)
+            Assert.assertNotNull(filter.getRandomExcuse(random));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRecentFilterRate()
+    {
+        new BOFHRecentFilter(new BOFHExcuseModel(new String[][] {{"a"}}), 10, 1.0);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * BOFHServerTest.java (TestClass: com.madphysicist.bofh.BOFHServerTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHServer}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHServerTest
+{
+    @Test
+    public void testServer() throws IOException
+    {
+        BOFHServer server = new BOFHServer(new BOFHExcuseModel(BOFHExcuseModelTest.COLUMNS), 0);
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            Assert.assertEquals(get(base + "/excuse?rank=0", 200), "A1 B1 C1\n");
+            Assert.assertEquals(get(base + "/excuse?indices=1,1,3", 200), "A2 C4\n");
+            Assert.assertEquals(get(base + "/excuses?count=0", 200), "");
+            Assert.assertEquals(get(base + "/excuses?count=50", 200).split("\n").length, 50);
+            Assert.assertTrue(get(base + "/excuse", 200).endsWith("\n"));
+            get(base + "/excuse?rank=24", 400);
+            get(base + "/excuse?indices=0,2,0", 400);
+            get(base + "/excuses?count=-1", 400);
+            get(base + "/excuse/other", 404);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testServerOversizedRank() throws IOException
+    {
+        String[][] columns = new String[5][10000];
+        for(String[] column : columns)
+            Arrays.fill(column, "x");
+        BOFHServer server = new BOFHServer(new BOFHExcuseModel(columns), 0);
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            get(base + "/excuse?rank=0", 400);
+            Assert.assertEquals(get(base + "/excuse", 200), "x x x x x\n");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String get(String url, int expectedStatus) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection)new URL(url).openConnection();
+        Assert.assertEquals(connection.getResponseCode(), expectedStatus);
+        Assert.assertEquals(connection.getHeaderField(BOFHServer.VERSION_HEADER), "0");
+        try(InputStream in = (expectedStatus == 200) ? connection.getInputStream() : connection.getErrorStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for(int count; in != null && (count = in.read(buffer)) > 0; )
+                out.write(buffer, 0, count);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
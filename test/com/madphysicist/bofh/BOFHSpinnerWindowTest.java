@@ -0,0 +1,72 @@
+/*
+ * BOFHSpinnerWindowTest.java (TestClass: com.madphysicist.bofh.BOFHSpinnerWindowTest)
+ *
+ * Mad Physicist BOFH Excuse Generator Project
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 by Joseph Fox-Rabinovitz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.madphysicist.bofh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the methods of {@code BOFHSpinnerWindow}.
+ *
+ * @author Joseph Fox-Rabinovitz
+ * @version 1.0.0, 16 Oct 2026 - Initial Coding.
+ * @since 1.0.0
+ */
+public class BOFHSpinnerWindowTest
+{
+    @Test public void testSpinnerWindow()
+    {
+        String[] entries = new String[5000];
+        double[] weights = new double[entries.length];
+        for(int index = 0; index < entries.length; index++)
+            entries[index] = "entry " + index;
+        weights[1234] = 1.0;
+        weights[4321] = 1.0;
+        BOFHExcuseModel model = new BOFHExcuseModel(new String[][] {entries}, new double[][] {weights});
+
+        Supplier<List<String>> sampler = BOFHSpinnerWindow.sampler(model, 0, 64);
+        Set<String> seen = new HashSet<>();
+        for(int spin = 0; spin < 10; spin++) {
+            List<String> window = sampler.get();
+            Assert.assertEquals(window.size(), 64);
+            seen.addAll(window);
+        }
+        // only the entries that the model can select are ever shown
+        Assert.assertEquals(seen, new HashSet<>(Arrays.asList("entry 1234", "entry 4321")));
+
+        // every spin gets a new sample of the whole column
+        Supplier<List<String>> uniform = BOFHSpinnerWindow.sampler(new BOFHExcuseModel(new String[][] {entries}), 0, 64);
+        Assert.assertNotEquals(new ArrayList<>(uniform.get()), new ArrayList<>(uniform.get()));
+    }
+}